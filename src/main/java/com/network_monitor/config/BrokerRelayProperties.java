@@ -0,0 +1,39 @@
+package com.network_monitor.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+
+/**
+ * Harici STOMP broker relay ayarları. Kapalıyken uygulama içi simple broker
+ * kullanılır ve WebSocket katmanı tek node'dur.
+ */
+@Getter
+@Component
+public class BrokerRelayProperties {
+
+    @Value("${netmon.ws.broker.relay.enabled:false}")
+    private boolean enabled;
+
+    @Value("${netmon.ws.broker.relay.host:localhost}")
+    private String host;
+
+    @Value("${netmon.ws.broker.relay.port:61613}")
+    private int port;
+
+    @Value("${netmon.ws.broker.relay.client-login:guest}")
+    private String clientLogin;
+
+    @Value("${netmon.ws.broker.relay.client-passcode:guest}")
+    private String clientPasscode;
+
+    @Value("${netmon.ws.broker.relay.system-login:guest}")
+    private String systemLogin;
+
+    @Value("${netmon.ws.broker.relay.system-passcode:guest}")
+    private String systemPasscode;
+
+    @Value("${netmon.ws.broker.relay.virtual-host:/}")
+    private String virtualHost;
+}
@@ -17,6 +17,7 @@ public class CorsConfig {
             .allowedOrigins("*")
             .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
             .allowedHeaders("*")
+            .exposedHeaders("X-Walk-Id", "X-Data-Age-Ms") // tarayıcı JS'in okuyabilmesi için
             .allowCredentials(false)
             .maxAge(3600); // 1 hour
 
@@ -1,16 +1,13 @@
 package com.network_monitor.config;
 
 import java.util.Map;
+import java.util.Set;
 
 public class MetricsOidConstants {
     private MetricsOidConstants() {
     }
 
     public static final Map<String, String> HIGH_FREQUENCY_METRICS = Map.ofEntries(
-            Map.entry("interface_in_octets", "1.3.6.1.2.1.2.2.1.10.1"),
-            Map.entry("interface_out_octets", "1.3.6.1.2.1.2.2.1.16.1"),
-            Map.entry("interface_in_errors", "1.3.6.1.2.1.2.2.1.14.1"),
-            Map.entry("interface_out_errors", "1.3.6.1.2.1.2.2.1.20.1"),
             Map.entry("ip_in_receives", "1.3.6.1.2.1.4.3.0"),
             Map.entry("ip_out_requests", "1.3.6.1.2.1.4.10.0"),
             Map.entry("tcp_curr_estab", "1.3.6.1.2.1.6.9.0"),
@@ -18,7 +15,9 @@ public class MetricsOidConstants {
             Map.entry("udp_out_datagrams", "1.3.6.1.2.1.7.4.0"),
             Map.entry("icmp_in_msgs", "1.3.6.1.2.1.5.1.0"),
             Map.entry("icmp_out_msgs", "1.3.6.1.2.1.5.14.0"),
-            Map.entry("arp_table_entry", "1.3.6.1.2.1.3.1.1.3.13.1"));
+            Map.entry("arp_table_entry", "1.3.6.1.2.1.3.1.1.3.13.1"),
+            // Sayaç oranlarında agent yeniden başlamasını algılamak için
+            Map.entry("system_uptime", "1.3.6.1.2.1.1.3.0"));
 
     public static final Map<String, String> MEDIUM_FREQUENCY_METRICS = Map.ofEntries(
             Map.entry("system_uptime", "1.3.6.1.2.1.1.3.0"),
@@ -33,4 +32,45 @@ public class MetricsOidConstants {
             Map.entry("system_contact", "1.3.6.1.2.1.1.4.0"),
             Map.entry("system_location", "1.3.6.1.2.1.1.6.0"),
             Map.entry("system_services", "1.3.6.1.2.1.1.7.0"));
+
+    // Counter32/Counter64 metrikleri; geçmiş ve rollup'larda ham sayaç yerine oranları toplanır
+    public static final Set<String> COUNTER_METRICS = Set.of(
+            "ip_in_receives", "ip_out_requests", "udp_in_datagrams", "udp_out_datagrams", "icmp_in_msgs",
+            "icmp_out_msgs", "tcp_active_opens", "interface_in_octets", "interface_out_octets",
+            "interface_in_errors", "interface_out_errors");
+
+    // ifTable.ifIndex sütunu; cihazdaki arayüzlerin listesi
+    public static final String IF_INDEX_COLUMN = "1.3.6.1.2.1.2.2.1.1";
+
+    // Arayüz başına yüksek frekansta okunan sütunlar (satır indeksi ifIndex).
+    // Octet sayaçları ifXTable'daki 64-bit HC sütunlarından okunur.
+    public static final Map<String, String> INTERFACE_HC_COLUMNS = Map.ofEntries(
+            Map.entry("interface_in_octets", "1.3.6.1.2.1.31.1.1.1.6"),
+            Map.entry("interface_out_octets", "1.3.6.1.2.1.31.1.1.1.10"),
+            Map.entry("interface_in_errors", "1.3.6.1.2.1.2.2.1.14"),
+            Map.entry("interface_out_errors", "1.3.6.1.2.1.2.2.1.20"));
+
+    // ifXTable desteklemeyen (ör. yalnızca v1) agent'lar için 32-bit sütunlar
+    public static final Map<String, String> INTERFACE_COLUMNS = Map.ofEntries(
+            Map.entry("interface_in_octets", "1.3.6.1.2.1.2.2.1.10"),
+            Map.entry("interface_out_octets", "1.3.6.1.2.1.2.2.1.16"),
+            Map.entry("interface_in_errors", "1.3.6.1.2.1.2.2.1.14"),
+            Map.entry("interface_out_errors", "1.3.6.1.2.1.2.2.1.20"));
+
+    // OID keşfinin kapsadığı kök (internet); aşağıdaki alt ağaçların dışında kalan
+    // aralıklar da ayrıca yürünür, böylece sonuç tek bir 1.3.6.1 yürüyüşüyle aynıdır
+    public static final String DISCOVERY_ROOT = "1.3.6.1";
+
+    // OID keşfinde paralel yürünen bağımsız alt ağaçlar
+    public static final Map<String, String> DISCOVERY_SUBTREES = Map.ofEntries(
+            Map.entry("system", "1.3.6.1.2.1.1"),
+            Map.entry("interfaces", "1.3.6.1.2.1.2"),
+            Map.entry("at", "1.3.6.1.2.1.3"),
+            Map.entry("ip", "1.3.6.1.2.1.4"),
+            Map.entry("icmp", "1.3.6.1.2.1.5"),
+            Map.entry("tcp", "1.3.6.1.2.1.6"),
+            Map.entry("udp", "1.3.6.1.2.1.7"),
+            Map.entry("snmp", "1.3.6.1.2.1.11"),
+            Map.entry("ifX", "1.3.6.1.2.1.31"),
+            Map.entry("enterprises", "1.3.6.1.4.1"));
 }
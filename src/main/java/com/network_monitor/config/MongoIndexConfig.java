@@ -0,0 +1,71 @@
+package com.network_monitor.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.network_monitor.model.Device;
+import com.network_monitor.model.SnmpData;
+import com.network_monitor.model.SnmpMetricBucket;
+import com.network_monitor.model.SnmpMetricRollup;
+import com.network_monitor.model.SnmpTrap;
+
+/**
+ * Entity üzerindeki index tanımlarını uygulama açıldıktan sonra oluşturur.
+ * auto-index-creation açık olsaydı MongoDB'ye erişilemediğinde uygulama hiç
+ * açılmazdı; burada hata sadece loglanır.
+ */
+@Configuration
+public class MongoIndexConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+  private static final List<Class<?>> INDEXED_ENTITIES = List.of(
+      SnmpMetricBucket.class,
+      SnmpMetricRollup.class,
+      SnmpData.class,
+      SnmpTrap.class,
+      Device.class);
+
+  // Anahtarına if_index eklenmeden önceki unique index'ler; kalırsa aynı
+  // pencerede birden fazla arayüzün bucket'ı yazılamaz
+  private static final Map<Class<?>, String> OBSOLETE_INDEXES = Map.of(
+      SnmpMetricBucket.class, "device_metric_bucket",
+      SnmpMetricRollup.class, "device_metric_resolution_bucket");
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  @Autowired
+  private MongoMappingContext mappingContext;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void ensureIndexes() {
+    CompletableFuture.runAsync(() -> {
+      MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+      for (Class<?> entity : INDEXED_ENTITIES) {
+        try {
+          IndexOperations indexOps = mongoTemplate.indexOps(entity);
+          String obsolete = OBSOLETE_INDEXES.get(entity);
+          if (obsolete != null && indexOps.getIndexInfo().stream().anyMatch(info -> obsolete.equals(info.getName()))) {
+            indexOps.dropIndex(obsolete);
+          }
+          resolver.resolveIndexFor(entity).forEach(indexOps::createIndex);
+        } catch (Exception e) {
+          logger.warn("Index creation for {} failed: {}", entity.getSimpleName(), e.getMessage());
+        }
+      }
+    });
+  }
+}
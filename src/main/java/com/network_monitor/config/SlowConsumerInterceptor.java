@@ -0,0 +1,135 @@
+package com.network_monitor.config;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * clientOutboundChannel üzerinde oturum başına bekleyen mesaj sayısını ve
+ * oturumun WebSocket gönderim tamponunu izler. Outbound kuyruğu dolduğunda
+ * veya tamponda max-buffered-bytes'tan fazla veri beklediğinde
+ * {@link #DROPPABLE_HEADER} taşıyan metrik mesajları atılır ve oturum "geride kaldı" olarak işaretlenir; bir
+ * sonraki delta tam snapshot olarak gönderilir (en son değerlere birleştirme).
+ * Böylece yavaş bir tarayıcı outbound thread'lerini ve broker'ı tıkayamaz.
+ */
+@Component
+public class SlowConsumerInterceptor implements ExecutorChannelInterceptor {
+
+    // Bu header'ı taşıyan mesajlar yavaş oturumlarda atılabilir
+    public static final String DROPPABLE_HEADER = "netmon.droppable";
+
+    // Oturum başına outbound kuyrukta bekleyebilecek en fazla mesaj
+    @Value("${netmon.ws.outbound.max-pending-per-session:32}")
+    private int maxPendingPerSession;
+
+    // Oturumun gönderim tamponunda bu kadar byte beklerken metrik mesajları atılır;
+    // send-buffer-size-limit'in altında olmalı, aksi halde oturum kapatılır
+    @Value("${netmon.ws.outbound.max-buffered-bytes:131072}")
+    private int maxBufferedBytes;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicInteger> pending = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentWebSocketSessionDecorator> sessions = new ConcurrentHashMap<>();
+    private final Set<String> laggingSessions = ConcurrentHashMap.newKeySet();
+    private Counter droppedCounter;
+
+    @PostConstruct
+    public void init() {
+        droppedCounter = Counter.builder("websocket.outbound.dropped")
+                .description("Metric frames dropped for slow WebSocket sessions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null) {
+            return message;
+        }
+
+        // Kayıt registerSession'da açılır; kapanmış oturumun geç gelen mesajları
+        // (ör. DISCONNECT_ACK) sayılmadan geçer, haritada kayıt bırakmaz
+        AtomicInteger count = pending.get(sessionId);
+        if (count == null) {
+            return message;
+        }
+        if (message.getHeaders().containsKey(DROPPABLE_HEADER)
+                && (count.get() >= maxPendingPerSession || bufferedBytes(sessionId) >= maxBufferedBytes)) {
+            laggingSessions.add(sessionId);
+            droppedCounter.increment();
+            return null;
+        }
+        count.incrementAndGet();
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        // Executor'a hiç verilemediyse sayaç burada geri alınır
+        if (!sent) {
+            decrement(message);
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+            Exception ex) {
+        decrement(message);
+    }
+
+    /**
+     * Spring'in oturum için oluşturduğu decorator'ı kaydeder ve oturumun
+     * bekleyen mesaj sayacını açar; tampon doluluğu buradan okunur.
+     */
+    public void registerSession(ConcurrentWebSocketSessionDecorator session) {
+        sessions.put(session.getId(), session);
+        pending.put(session.getId(), new AtomicInteger());
+    }
+
+    /**
+     * Oturum geride kaldıysa işareti temizler ve true döner; çağıran bir
+     * sonraki gönderimde tam snapshot göndermelidir.
+     */
+    public boolean takeLagging(String sessionId) {
+        return laggingSessions.remove(sessionId);
+    }
+
+    @EventListener
+    public void handleSessionDisconnect(SessionDisconnectEvent event) {
+        pending.remove(event.getSessionId());
+        sessions.remove(event.getSessionId());
+        laggingSessions.remove(event.getSessionId());
+    }
+
+    private int bufferedBytes(String sessionId) {
+        ConcurrentWebSocketSessionDecorator session = sessions.get(sessionId);
+        return session != null ? session.getBufferSize() : 0;
+    }
+
+    private void decrement(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        AtomicInteger count = sessionId != null ? pending.get(sessionId) : null;
+        if (count != null && count.get() > 0) {
+            count.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.network_monitor.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * {@code @EnableWebSocketMessageBroker} yerine kullanılır; ayarlar yine
+ * {@link WebSocketConfig}'ten okunur. Tek farkı, Spring'in her oturum için
+ * oluşturduğu {@link ConcurrentWebSocketSessionDecorator}'ı
+ * {@link SlowConsumerInterceptor}'a kaydetmesidir. Böylece yavaş oturumlar,
+ * decorator tamponu send-buffer-size-limit'e ulaşıp oturum kapatılmadan önce
+ * tespit edilir.
+ */
+@Configuration
+public class WebSocketBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    @Autowired
+    private SlowConsumerInterceptor slowConsumerInterceptor;
+
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(
+            @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+            @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel) {
+        SubProtocolWebSocketHandler handler = new SubProtocolWebSocketHandler(clientInboundChannel,
+                clientOutboundChannel) {
+            @Override
+            protected WebSocketSession decorateSession(WebSocketSession session) {
+                WebSocketSession decorated = super.decorateSession(session);
+                if (decorated instanceof ConcurrentWebSocketSessionDecorator concurrent) {
+                    slowConsumerInterceptor.registerSession(concurrent);
+                }
+                return decorated;
+            }
+        };
+        handler.setPhase(getPhase());
+        return handler;
+    }
+}
@@ -1,33 +1,100 @@
 package com.network_monitor.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+import com.network_monitor.security.jwt.JwtHandshakeInterceptor;
+import com.network_monitor.security.jwt.StompAuthChannelInterceptor;
+
+/**
+ * STOMP broker ayarları; broker altyapısı {@link WebSocketBrokerConfig} ile
+ * etkinleştirilir.
+ */
 @Configuration
-@EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    // Tek bir oturuma yazma işleminin sürebileceği en uzun süre; aşılırsa oturum kapatılır
+    @Value("${netmon.ws.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    // Oturum başına gönderilmeyi bekleyen en fazla byte; aşılırsa oturum kapatılır
+    @Value("${netmon.ws.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${netmon.ws.outbound.pool-size:8}")
+    private int outboundPoolSize;
+
+    @Autowired
+    private SlowConsumerInterceptor slowConsumerInterceptor;
+
+    @Autowired
+    private BrokerRelayProperties relayProperties;
+
+    @Autowired
+    private StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    @Autowired
+    private JwtHandshakeInterceptor jwtHandshakeInterceptor;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Simple broker for sending messages to clients
-        config.enableSimpleBroker("/topic", "/queue");
+        if (relayProperties.isEnabled()) {
+            // Harici STOMP broker (RabbitMQ, ActiveMQ...): tüm node'lar aynı topic'leri paylaşır
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayProperties.getHost())
+                    .setRelayPort(relayProperties.getPort())
+                    .setClientLogin(relayProperties.getClientLogin())
+                    .setClientPasscode(relayProperties.getClientPasscode())
+                    .setSystemLogin(relayProperties.getSystemLogin())
+                    .setSystemPasscode(relayProperties.getSystemPasscode())
+                    .setVirtualHost(relayProperties.getVirtualHost())
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            // Simple broker for sending messages to clients (tek node, test/geliştirme)
+            config.enableSimpleBroker("/topic", "/queue");
+        }
 
         // Prefix for messages from clients
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(slowConsumerInterceptor)
+                .taskExecutor()
+                .corePoolSize(outboundPoolSize)
+                .maxPoolSize(outboundPoolSize);
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // WebSocket endpoint - matches Angular WS_ENDPOINT
         registry.addEndpoint("/ws/snmp-data")
                 .setAllowedOriginPatterns("*") // CORS için
+                .addInterceptors(jwtHandshakeInterceptor)
                 .withSockJS(); // SockJS fallback support
 
         // Raw WebSocket endpoint (without SockJS)
         registry.addEndpoint("/ws/snmp-data")
-                .setAllowedOriginPatterns("*");
+                .setAllowedOriginPatterns("*")
+                .addInterceptors(jwtHandshakeInterceptor);
     }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.network_monitor.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.network_monitor.dto.response.MessageResponse;
+import com.network_monitor.model.Device;
+import com.network_monitor.model.EDeviceHealth;
+import com.network_monitor.service.DeviceHealthService;
+import com.network_monitor.service.DeviceInventoryService;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/v1/devices")
+@CrossOrigin(origins = "*")
+public class DeviceController {
+
+  @Autowired
+  private DeviceInventoryService deviceInventoryService;
+
+  @Autowired
+  private DeviceHealthService deviceHealthService;
+
+  @GetMapping
+  public List<Device> getDevices() {
+    return deviceInventoryService.findAll();
+  }
+
+  /**
+   * Devre kesicisi bir kez açılmış cihazların durumu (CLOSED, OPEN,
+   * HALF_OPEN); listede olmayan cihazlar CLOSED'dır.
+   */
+  @GetMapping("/health")
+  public Map<String, EDeviceHealth> getDeviceHealth() {
+    return deviceHealthService.getStates();
+  }
+
+  @GetMapping("/{id}")
+  public ResponseEntity<?> getDevice(@PathVariable String id) {
+    return deviceInventoryService.findById(id)
+        .<ResponseEntity<?>>map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  @PostMapping
+  public ResponseEntity<?> createDevice(@Valid @RequestBody Device device) {
+    if (deviceInventoryService.existsByIp(device.getIp())) {
+      return ResponseEntity
+          .badRequest()
+          .body(new MessageResponse("Device is already registered!"));
+    }
+    if (isMissingSecurityName(device)) {
+      return ResponseEntity
+          .badRequest()
+          .body(new MessageResponse("SNMPv3 devices require a security name!"));
+    }
+
+    if (device.getCommunity() == null) {
+      device.setCommunity(Device.DEFAULT_COMMUNITY);
+    }
+    device.setId(null);
+    return ResponseEntity.ok(deviceInventoryService.save(device));
+  }
+
+  @PutMapping("/{id}")
+  public ResponseEntity<?> updateDevice(@PathVariable String id, @Valid @RequestBody Device device) {
+    Optional<Device> existing = deviceInventoryService.findById(id);
+    if (existing.isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+    Optional<Device> sameIp = deviceInventoryService.findByIp(device.getIp());
+    if (sameIp.isPresent() && !sameIp.get().getId().equals(id)) {
+      return ResponseEntity
+          .badRequest()
+          .body(new MessageResponse("Device is already registered!"));
+    }
+    if (isMissingSecurityName(device)) {
+      return ResponseEntity
+          .badRequest()
+          .body(new MessageResponse("SNMPv3 devices require a security name!"));
+    }
+
+    // Community ve parolalar yanıtlarda dönmediği için gönderilmezse mevcutları korunur
+    if (device.getCommunity() == null) {
+      device.setCommunity(existing.get().getCommunity());
+    }
+    if (device.getAuthPassphrase() == null) {
+      device.setAuthPassphrase(existing.get().getAuthPassphrase());
+    }
+    if (device.getPrivPassphrase() == null) {
+      device.setPrivPassphrase(existing.get().getPrivPassphrase());
+    }
+    device.setId(id);
+    return ResponseEntity.ok(deviceInventoryService.save(device));
+  }
+
+  @DeleteMapping("/{id}")
+  public ResponseEntity<?> deleteDevice(@PathVariable String id) {
+    deviceInventoryService.delete(id);
+    return ResponseEntity.ok(new MessageResponse("Device deleted successfully!"));
+  }
+
+  private static boolean isMissingSecurityName(Device device) {
+    return "3".equals(device.getVersion())
+        && (device.getSecurityName() == null || device.getSecurityName().isBlank());
+  }
+}
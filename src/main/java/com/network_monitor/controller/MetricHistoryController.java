@@ -0,0 +1,79 @@
+package com.network_monitor.controller;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.network_monitor.dto.response.MessageResponse;
+import com.network_monitor.dto.response.MetricHistoryPage;
+import com.network_monitor.service.MetricHistoryService;
+
+@RestController
+@RequestMapping("/api/v1/history")
+@CrossOrigin(origins = "*")
+public class MetricHistoryController {
+
+  // Tek sorguda dönebilecek en fazla pencere
+  @Value("${netmon.history.max-page-size:10000}")
+  private int maxWindows;
+
+  @Autowired
+  private MetricHistoryService metricHistoryService;
+
+  /**
+   * Cihaz + metrik geçmişi. from/to ISO-8601 (ör. 2025-01-01T00:00:00Z);
+   * verilmezse son 24 saat. Arayüz metriklerinde ifIndex verilir. Sonraki
+   * sayfa için yanıttaki nextCursor cursor parametresi olarak gönderilir.
+   */
+  @GetMapping
+  public MetricHistoryPage getHistory(@RequestParam String deviceIp,
+      @RequestParam String metric,
+      @RequestParam(required = false) Integer ifIndex,
+      @RequestParam(required = false) Instant from,
+      @RequestParam(required = false) Instant to,
+      @RequestParam(required = false) Long cursor,
+      @RequestParam(defaultValue = "1000") int limit) {
+    Instant end = to != null ? to : Instant.now();
+    Instant start = from != null ? from : end.minus(Duration.ofHours(24));
+
+    return metricHistoryService.findPage(deviceIp, metric, ifIndex, start, end, cursor, limit);
+  }
+
+  /**
+   * Aralığı resolution (ör. 1m, 5m, 1h) büyüklüğünde pencerelere bölüp her
+   * pencere için min/max/avg/last döner.
+   */
+  @GetMapping("/downsampled")
+  public ResponseEntity<?> getDownsampledHistory(@RequestParam String deviceIp,
+      @RequestParam String metric,
+      @RequestParam(required = false) Integer ifIndex,
+      @RequestParam(required = false) Instant from,
+      @RequestParam(required = false) Instant to,
+      @RequestParam(defaultValue = "5m") String resolution) {
+    Instant end = to != null ? to : Instant.now();
+    Instant start = from != null ? from : end.minus(Duration.ofHours(24));
+
+    long resolutionMs;
+    try {
+      resolutionMs = DurationStyle.detectAndParse(resolution).toMillis();
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(new MessageResponse("Invalid resolution: " + resolution));
+    }
+
+    if (resolutionMs <= 0 || Duration.between(start, end).toMillis() / resolutionMs > maxWindows) {
+      return ResponseEntity.badRequest()
+          .body(new MessageResponse("Resolution is too fine for the requested range"));
+    }
+
+    return ResponseEntity.ok(metricHistoryService.findAggregates(deviceIp, metric, ifIndex, start, end, resolutionMs));
+  }
+}
@@ -1,19 +1,36 @@
 package com.network_monitor.controller;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.network_monitor.dto.response.MessageResponse;
+import com.network_monitor.dto.response.OidWalkStats;
+import com.network_monitor.model.Device;
 import com.network_monitor.model.SnmpData;
+import com.network_monitor.service.DeviceInventoryService;
+import com.network_monitor.service.LatestValueStore;
 import com.network_monitor.service.OidDiscoveryService;
-import com.network_monitor.service.SnmpDataService;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -22,20 +39,85 @@ public class SnmpController {
 
   private static final Logger logger = LoggerFactory.getLogger(SnmpController.class);
 
+  // refresh=true isteğinde anlık sorgu için beklenecek en uzun süre
+  @Value("${netmon.api.refresh-timeout-ms:15000}")
+  private long refreshTimeoutMs;
+
+  @Autowired
+  private LatestValueStore latestValueStore;
+
   @Autowired
-  private SnmpDataService snmpDataService;
+  private DeviceInventoryService deviceInventoryService;
 
   @Autowired
   private OidDiscoveryService oidDiscoveryService;
 
   @GetMapping("/discover-oids")
-  public Map<String, String> getOids(String routerIP) {
-    var oids = oidDiscoveryService.discoverAllOids("192.168.1.1");
+  public Map<String, String> getOids(@RequestParam(required = false) String routerIP) {
+    var oids = oidDiscoveryService.discoverAllOids(routerIP);
     return oids;
   }
 
+  /**
+   * OID'leri bulundukça NDJSON olarak akıtır. Yanıttaki X-Walk-Id ile yürüyüş
+   * iptal edilebilir.
+   */
+  @GetMapping(value = "/discover-oids/stream", produces = "application/x-ndjson")
+  public ResponseEntity<StreamingResponseBody> streamOids(@RequestParam(required = false) String routerIP) {
+    String walkId = UUID.randomUUID().toString();
+    StreamingResponseBody body = out -> oidDiscoveryService.streamAllOids(routerIP, walkId, out);
+
+    return ResponseEntity.ok()
+        .header("X-Walk-Id", walkId)
+        .contentType(MediaType.parseMediaType("application/x-ndjson"))
+        .body(body);
+  }
+
+  @DeleteMapping("/discover-oids/stream/{walkId}")
+  public ResponseEntity<MessageResponse> cancelOidStream(@PathVariable String walkId) {
+    if (!oidDiscoveryService.cancelStream(walkId)) {
+      return ResponseEntity.notFound().build();
+    }
+    logger.info("OID stream {} cancelled", walkId);
+    return ResponseEntity.ok(new MessageResponse("OID walk cancelled"));
+  }
+
+  @GetMapping("/discover-oids/stats")
+  public ResponseEntity<OidWalkStats> getDiscoveryStats(@RequestParam(required = false) String routerIP) {
+    OidWalkStats stats = oidDiscoveryService.getLastWalkStats(routerIP);
+    return stats != null ? ResponseEntity.ok(stats) : ResponseEntity.notFound().build();
+  }
+
+  /**
+   * Cihazın son değerlerini poller'ların doldurduğu store'dan döner; SNMP
+   * sorgusu yapılmaz. refresh=true ise (veya cihaz için henüz veri yoksa)
+   * cihaz anlık sorgulanır, aynı anda gelen istekler tek sorguyu paylaşır.
+   * X-Data-Age-Ms header'ı en eski değerin yaşını verir.
+   */
   @GetMapping("/all-metrics")
-  public List<SnmpData> getAllMetrics(String routerIP) {
-    return snmpDataService.fetchAllMetrics();
+  public ResponseEntity<List<SnmpData>> getAllMetrics(@RequestParam(required = false) String routerIP,
+      @RequestParam(defaultValue = "false") boolean refresh) {
+    Device device = deviceInventoryService.resolve(routerIP);
+    List<SnmpData> data = latestValueStore.latest(device.getIp());
+
+    if (refresh || data.isEmpty()) {
+      try {
+        latestValueStore.refresh(device).get(refreshTimeoutMs, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException | TimeoutException e) {
+        // Store'daki son değerlerle yanıt verilir
+        logger.warn("Live refresh failed for {}: {}", device.getIp(), e.getMessage());
+      }
+      data = latestValueStore.latest(device.getIp());
+    }
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    LocalDateTime oldest = latestValueStore.oldestTimestamp(device.getIp());
+    if (oldest != null) {
+      response.header("X-Data-Age-Ms", String.valueOf(Math.max(0, Duration.between(oldest, LocalDateTime.now())
+          .toMillis())));
+    }
+    return response.body(data);
   }
 }
\ No newline at end of file
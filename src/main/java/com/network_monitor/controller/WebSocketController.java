@@ -1,53 +1,252 @@
 package com.network_monitor.controller;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
+import com.network_monitor.config.SlowConsumerInterceptor;
+import com.network_monitor.dto.request.MetricSubscriptionRequest;
+import com.network_monitor.dto.response.MetricDelta;
+import com.network_monitor.event.DeviceHealthChangedEvent;
+import com.network_monitor.event.SnmpDataRelayedEvent;
 import com.network_monitor.event.SnmpDataSavedEvent;
+import com.network_monitor.event.SnmpTrapsReceivedEvent;
+import com.network_monitor.model.MetricSubscription;
 import com.network_monitor.model.SnmpData;
 import com.network_monitor.model.WebSocketMessage;
+import com.network_monitor.service.BroadcastService;
+import com.network_monitor.service.MetricFrameCodec;
+import com.network_monitor.service.SampleRelayService;
 
 @Controller
 public class WebSocketController {
 
     private static final Logger logger = LoggerFactory.getLogger(WebSocketController.class);
-    private final ConcurrentHashMap<String, Boolean> activeSubscriptions = new ConcurrentHashMap<>();
+
+    // Abonelere sadece değişen değerlerin gönderildiği kuyruk (/user/queue/metrics-delta)
+    private static final String DELTA_DESTINATION = "/queue/metrics-delta";
+
+    // sessionId -> abonelik
+    private final ConcurrentHashMap<String, MetricSubscription> activeSubscriptions = new ConcurrentHashMap<>();
+
+    // Eski istemciler için katmanın tamamını /topic/{tier}-frequency-data'ya yayınla
+    @Value("${netmon.ws.legacy-broadcast:true}")
+    private boolean legacyBroadcast;
 
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Autowired
+    private MetricFrameCodec frameCodec;
+
+    @Autowired
+    private BroadcastService broadcastService;
+
+    @Autowired
+    private SlowConsumerInterceptor slowConsumerInterceptor;
+
+    @Autowired
+    private SampleRelayService sampleRelayService;
+
     @EventListener
     public void handleSnmpDataSaved(SnmpDataSavedEvent event) {
         try {
             List<SnmpData> data = event.getSnmpData();
             String frqType = event.getFrequencyType();
-            if (data != null) {
+            if (data == null) {
+                return;
+            }
+
+            if (legacyBroadcast) {
                 WebSocketMessage message = new WebSocketMessage(frqType + "_frequency_metrics", data);
-                messagingTemplate.convertAndSend("/topic/" + frqType + "-frequency-data", message);
+                broadcastService.broadcast("/topic/" + frqType + "-frequency-data", message);
+            }
+
+            // Relay modunda delta'lar broker'dan gelen kopya ile (tüm node'larda) hesaplanır
+            if (!sampleRelayService.isEnabled()) {
+                pushDeltas(data);
             }
         } catch (Exception e) {
             logger.error("WebSocket error: {}", e.getMessage());
         }
     }
 
+    @EventListener
+    public void handleSnmpDataRelayed(SnmpDataRelayedEvent event) {
+        try {
+            if (event.getSnmpData() != null) {
+                pushDeltas(event.getSnmpData());
+            }
+        } catch (Exception e) {
+            logger.error("WebSocket error: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void handleDeviceHealthChanged(DeviceHealthChangedEvent event) {
+        try {
+            broadcastService.broadcast("/topic/device-health", new WebSocketMessage("DEVICE_HEALTH", Map.of(
+                    "deviceIp", event.getDeviceIp(),
+                    "previous", event.getPrevious(),
+                    "state", event.getCurrent())));
+        } catch (Exception e) {
+            logger.error("WebSocket error: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void handleSnmpTrapsReceived(SnmpTrapsReceivedEvent event) {
+        try {
+            broadcastService.broadcast("/topic/traps", new WebSocketMessage("SNMP_TRAPS", event.getTraps()));
+        } catch (Exception e) {
+            logger.error("WebSocket error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * İstemcinin cihaz/metrik filtresini ve kodlamasını kaydeder. Aynı
+     * oturumdan yeni bir abonelik öncekinin yerine geçer ve snapshot
+     * sıfırlanır; bir sonraki poll'da filtreye uyan tüm değerler gönderilir.
+     * encoding=binary seçilirse delta'lar {@link MetricFrameCodec} biçiminde
+     * gönderilir.
+     */
+    @MessageMapping("/subscribe")
+    public void subscribe(@Payload MetricSubscriptionRequest request, SimpMessageHeaderAccessor headerAccessor) {
+        String sessionId = headerAccessor.getSessionId();
+        boolean binary = "binary".equalsIgnoreCase(request.getEncoding());
+        MetricSubscription subscription = new MetricSubscription(sessionId, request.getDevices(),
+                request.getMetrics(), binary);
+        activeSubscriptions.put(sessionId, subscription);
+
+        sendToSession(sessionId, new WebSocketMessage("SUBSCRIBED", Map.of(
+                "devices", subscription.getDevices(),
+                "metrics", subscription.getMetrics(),
+                "encoding", binary ? "binary" : "json")));
+    }
+
+    @MessageMapping("/unsubscribe")
+    public void unsubscribe(SimpMessageHeaderAccessor headerAccessor) {
+        activeSubscriptions.remove(headerAccessor.getSessionId());
+    }
+
+    @EventListener
+    public void handleSessionDisconnect(SessionDisconnectEvent event) {
+        activeSubscriptions.remove(event.getSessionId());
+    }
+
     /**
      * Health check endpoint
      */
     @MessageMapping("/ping")
     @SendTo("/topic/pong")
     public WebSocketMessage ping() {
-        return new WebSocketMessage("PONG", java.util.Map.of(
+        return new WebSocketMessage("PONG", Map.of(
                 "status", "alive",
                 "timestamp", System.currentTimeMillis(),
                 "activeSubscriptions", activeSubscriptions.size()));
     }
-}
\ No newline at end of file
+
+    private void pushDeltas(List<SnmpData> data) {
+        if (activeSubscriptions.isEmpty()) {
+            return;
+        }
+
+        // Kayıtlar olay başına bir kez kodlanır, aboneler arasında paylaşılır
+        EncodedRecords records = new EncodedRecords(data);
+        for (MetricSubscription subscription : activeSubscriptions.values()) {
+            pushDelta(subscription, records);
+        }
+    }
+
+    private void pushDelta(MetricSubscription subscription, EncodedRecords records) {
+        // Önceki frame'ler yavaş istemci yüzünden atıldıysa snapshot baştan gönderilir
+        if (slowConsumerInterceptor.takeLagging(subscription.getSessionId())) {
+            subscription.resync();
+        }
+
+        List<byte[]> changed = new ArrayList<>();
+        List<SnmpData> data = records.data;
+        for (int i = 0; i < data.size(); i++) {
+            SnmpData snmpData = data.get(i);
+            if (subscription.matches(snmpData) && subscription.recordIfChanged(snmpData)) {
+                changed.add(subscription.isBinary() ? records.binary(i) : records.json(i));
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (!subscription.isBinary()) {
+            broadcastService.sendToSession(subscription.getSessionId(), DELTA_DESTINATION,
+                    frameCodec.jsonFrame("metrics_delta", changed, now), MimeTypeUtils.APPLICATION_JSON);
+            return;
+        }
+
+        broadcastService.sendToSession(subscription.getSessionId(), DELTA_DESTINATION,
+                frameCodec.binaryFrame(changed, now),
+                MimeTypeUtils.APPLICATION_OCTET_STREAM);
+    }
+
+    private void sendToSession(String sessionId, Object payload) {
+        // Principal olmayan oturumlara sessionId üzerinden gönderilir
+        SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headerAccessor.setSessionId(sessionId);
+        headerAccessor.setLeaveMutable(true);
+        MessageHeaders headers = headerAccessor.getMessageHeaders();
+        messagingTemplate.convertAndSendToUser(sessionId, DELTA_DESTINATION, payload, headers);
+    }
+
+    private static MetricDelta toDelta(SnmpData snmpData) {
+        return new MetricDelta(snmpData.getDeviceIp(), snmpData.getMetricType(), snmpData.getIfIndex(),
+                snmpData.getValue(), snmpData.getReadableValue(), snmpData.getRate(),
+                MetricFrameCodec.timestampOf(snmpData));
+    }
+
+    /**
+     * Bir olaydaki kayıtların JSON ve binary kodlamaları; ilk ihtiyaç
+     * duyulduğunda bir kez üretilir. Tek bir olay işlenirken kullanılır.
+     */
+    private final class EncodedRecords {
+        private final List<SnmpData> data;
+        private final byte[][] json;
+        private final byte[][] binary;
+
+        EncodedRecords(List<SnmpData> data) {
+            this.data = data;
+            this.json = new byte[data.size()][];
+            this.binary = new byte[data.size()][];
+        }
+
+        byte[] json(int index) {
+            if (json[index] == null) {
+                json[index] = frameCodec.encodeJson(toDelta(data.get(index)));
+            }
+            return json[index];
+        }
+
+        byte[] binary(int index) {
+            if (binary[index] == null) {
+                binary[index] = frameCodec.encodeRecord(data.get(index));
+            }
+            return binary[index];
+        }
+    }
+}
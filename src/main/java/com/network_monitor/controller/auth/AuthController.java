@@ -9,6 +9,7 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
@@ -30,6 +31,7 @@ import com.network_monitor.dto.request.LoginRequest;
 import com.network_monitor.dto.request.SignupRequest;
 import com.network_monitor.dto.response.MessageResponse;
 import com.network_monitor.dto.response.UserInfoResponse;
+import com.network_monitor.event.UserChangedEvent;
 import com.network_monitor.model.ERole;
 import com.network_monitor.model.Role;
 import com.network_monitor.model.User;
@@ -63,6 +65,9 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
             HttpServletRequest request) {
@@ -147,6 +152,8 @@ public class AuthController {
 
         user.setRoles(roles);
         userRepository.save(user);
+        // Aynı kullanıcı adı için önbellekte kalmış kayıt varsa düşür
+        eventPublisher.publishEvent(new UserChangedEvent(this, user.getUsername()));
 
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     }
@@ -0,0 +1,17 @@
+package com.network_monitor.dto.request;
+
+import java.util.Set;
+
+import lombok.Data;
+
+@Data
+public class MetricSubscriptionRequest {
+    // Boş veya null ise tüm cihazlar
+    private Set<String> devices;
+
+    // Boş veya null ise tüm metrikler (ör. interface_in_octets)
+    private Set<String> metrics;
+
+    // "json" (varsayılan) veya "binary"; binary yalnızca SockJS'siz WebSocket'te
+    private String encoding;
+}
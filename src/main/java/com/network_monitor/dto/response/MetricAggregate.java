@@ -0,0 +1,18 @@
+package com.network_monitor.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricAggregate {
+    // Aralığın başlangıcı (epoch millis)
+    private long timestamp;
+    private double min;
+    private double max;
+    private double avg;
+    private double last;
+    private long count;
+}
@@ -0,0 +1,26 @@
+package com.network_monitor.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * İstemciye son gönderilen değerden farklı olan tek bir metrik değeri.
+ * Boş alanlar JSON'a yazılmaz.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MetricDelta {
+    private String deviceIp;
+    private String metric;
+    private Integer ifIndex;
+    private String value;
+    private String readableValue;
+    private Double rate;
+    // epoch millis
+    private long timestamp;
+}
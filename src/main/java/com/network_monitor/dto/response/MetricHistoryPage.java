@@ -0,0 +1,19 @@
+package com.network_monitor.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricHistoryPage {
+    private String deviceIp;
+    private String metricType;
+    private Integer ifIndex;
+    private List<MetricPoint> points;
+    // Sonraki sayfa için cursor (son noktanın zamanı); son sayfada null
+    private Long nextCursor;
+}
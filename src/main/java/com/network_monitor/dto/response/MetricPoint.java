@@ -0,0 +1,19 @@
+package com.network_monitor.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricPoint {
+    // epoch millis
+    private long timestamp;
+    private double value;
+    // Değerin kesin metni; Counter64 gibi double'a sığmayan sayılar burada kayıpsızdır
+    private String rawValue;
+    private String readableValue;
+    // Sayaç metriklerinde saniye başına oran
+    private Double rate;
+}
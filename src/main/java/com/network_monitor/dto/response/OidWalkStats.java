@@ -0,0 +1,33 @@
+package com.network_monitor.dto.response;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class OidWalkStats {
+    private String deviceIp;
+    private long pdusSent;
+    private long oidCount;
+    private long durationMs;
+    private double oidsPerSecond;
+    private Map<String, SubtreeStats> subtrees = new LinkedHashMap<>();
+
+    public OidWalkStats(String deviceIp) {
+        this.deviceIp = deviceIp;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SubtreeStats {
+        private String rootOid;
+        private long pdusSent;
+        private long oidCount;
+        private long durationMs;
+    }
+}
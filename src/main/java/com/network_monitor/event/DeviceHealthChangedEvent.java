@@ -0,0 +1,37 @@
+package com.network_monitor.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.network_monitor.model.EDeviceHealth;
+
+import lombok.ToString;
+
+/**
+ * Cihazın devre kesici durumu değiştiğinde yayınlanır.
+ */
+@ToString
+public class DeviceHealthChangedEvent extends ApplicationEvent {
+
+    private final String deviceIp;
+    private final EDeviceHealth previous;
+    private final EDeviceHealth current;
+
+    public DeviceHealthChangedEvent(Object source, String deviceIp, EDeviceHealth previous, EDeviceHealth current) {
+        super(source);
+        this.deviceIp = deviceIp;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public String getDeviceIp() {
+        return deviceIp;
+    }
+
+    public EDeviceHealth getPrevious() {
+        return previous;
+    }
+
+    public EDeviceHealth getCurrent() {
+        return current;
+    }
+}
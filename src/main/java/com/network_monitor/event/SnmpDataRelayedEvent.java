@@ -0,0 +1,35 @@
+package com.network_monitor.event;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.network_monitor.model.SnmpData;
+
+import lombok.ToString;
+
+/**
+ * Harici broker üzerinden (herhangi bir poller node'undan) gelen örnekler.
+ * Sadece WebSocket tarafında kullanılır; kalıcılık ve rollup yalnızca
+ * örneği üreten node'daki {@link SnmpDataSavedEvent} ile yapılır.
+ */
+@ToString
+public class SnmpDataRelayedEvent extends ApplicationEvent {
+
+    private final List<SnmpData> snmpData;
+    private final String frequencyType;
+
+    public SnmpDataRelayedEvent(Object source, List<SnmpData> snmpData, String frequencyType) {
+        super(source);
+        this.snmpData = snmpData;
+        this.frequencyType = frequencyType;
+    }
+
+    public List<SnmpData> getSnmpData() {
+        return snmpData;
+    }
+
+    public String getFrequencyType() {
+        return frequencyType;
+    }
+}
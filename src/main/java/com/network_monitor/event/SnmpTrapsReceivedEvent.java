@@ -0,0 +1,27 @@
+package com.network_monitor.event;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.network_monitor.model.SnmpTrap;
+
+import lombok.ToString;
+
+/**
+ * Trap alıcısının bir batch'lik yeni (dedupe'tan geçen) bildirimi.
+ */
+@ToString
+public class SnmpTrapsReceivedEvent extends ApplicationEvent {
+
+    private final List<SnmpTrap> traps;
+
+    public SnmpTrapsReceivedEvent(Object source, List<SnmpTrap> traps) {
+        super(source);
+        this.traps = traps;
+    }
+
+    public List<SnmpTrap> getTraps() {
+        return traps;
+    }
+}
@@ -0,0 +1,24 @@
+package com.network_monitor.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import lombok.ToString;
+
+/**
+ * Kullanıcı oluşturulduğunda veya rolleri/şifresi değiştiğinde yayınlanır;
+ * kullanıcı önbellekleri bu olayla temizlenir.
+ */
+@ToString
+public class UserChangedEvent extends ApplicationEvent {
+
+    private final String username;
+
+    public UserChangedEvent(Object source, String username) {
+        super(source);
+        this.username = username;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+}
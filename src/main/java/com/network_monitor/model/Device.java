@@ -0,0 +1,107 @@
+package com.network_monitor.model;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@Document(collection = "devices")
+public class Device {
+
+  @Id
+  private String id;
+
+  @NotBlank
+  @Indexed(unique = true)
+  @Field("ip")
+  private String ip;
+
+  @Field("name")
+  private String name;
+
+  public static final String DEFAULT_COMMUNITY = "public";
+
+  // Yanıtlarda dönmez; JSON ile oluşturulan cihazda gönderilmezse null kalır
+  @ToString.Exclude
+  @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+  @Field("community")
+  private String community;
+
+  // "1", "2c" veya "3"
+  @Field("version")
+  private String version = "2c";
+
+  @Field("port")
+  private int port = 161;
+
+  @Field("timeout_ms")
+  private long timeoutMs = 5000;
+
+  @Field("retries")
+  private int retries = 1;
+
+  @Field("enabled")
+  private boolean enabled = true;
+
+  // SNMPv3 USM kullanıcısı; yalnızca version "3" için
+  @Field("security_name")
+  private String securityName;
+
+  // MD5, SHA, SHA224, SHA256, SHA384, SHA512; parola boşsa noAuth
+  @Field("auth_protocol")
+  private String authProtocol = "SHA";
+
+  @ToString.Exclude
+  @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+  @Field("auth_passphrase")
+  private String authPassphrase;
+
+  // DES, 3DES, AES128, AES192, AES256; parola boşsa noPriv
+  @Field("priv_protocol")
+  private String privProtocol = "AES128";
+
+  @ToString.Exclude
+  @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+  @Field("priv_passphrase")
+  private String privPassphrase;
+
+  // Bu cihaz için sorgulanmayacak katmanlar (high, medium, low)
+  @Field("disabled_tiers")
+  private Set<String> disabledTiers = new HashSet<>();
+
+  // Katman bazında sorgu aralığı (ms); tanımsız katmanlar genel ayarı kullanır
+  @Field("tier_intervals_ms")
+  private Map<String, Long> tierIntervalsMs = new HashMap<>();
+
+  public Device() {
+  }
+
+  public Device(String ip) {
+    this.ip = ip;
+    this.community = DEFAULT_COMMUNITY;
+  }
+
+  public boolean isTierEnabled(String frequencyType) {
+    return disabledTiers == null || !disabledTiers.contains(frequencyType);
+  }
+
+  public long getTierIntervalMs(String frequencyType, long defaultIntervalMs) {
+    Long interval = tierIntervalsMs != null ? tierIntervalsMs.get(frequencyType) : null;
+    return interval != null && interval > 0 ? interval : defaultIntervalMs;
+  }
+}
@@ -0,0 +1,11 @@
+package com.network_monitor.model;
+
+/**
+ * Cihaz başına devre kesici durumu: CLOSED normal, OPEN isteklere kapalı,
+ * HALF_OPEN tek bir deneme isteği yolda.
+ */
+public enum EDeviceHealth {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+}
@@ -0,0 +1,51 @@
+package com.network_monitor.model;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.Getter;
+
+/**
+ * Bir WebSocket oturumunun cihaz/metrik filtresi ve o oturuma en son
+ * gönderilen değerler. Delta'lar bu snapshot'a göre hesaplanır.
+ */
+@Getter
+public class MetricSubscription {
+
+    private final String sessionId;
+    private final Set<String> devices;
+    private final Set<String> metrics;
+    private final boolean binary;
+
+    // cihaz|metrik|ifIndex -> son gönderilen ham değer
+    private final Map<String, String> lastSent = new ConcurrentHashMap<>();
+
+    public MetricSubscription(String sessionId, Set<String> devices, Set<String> metrics, boolean binary) {
+        this.sessionId = sessionId;
+        this.devices = devices != null ? Set.copyOf(devices) : Set.of();
+        this.metrics = metrics != null ? Set.copyOf(metrics) : Set.of();
+        this.binary = binary;
+    }
+
+    public boolean matches(SnmpData data) {
+        return (devices.isEmpty() || devices.contains(data.getDeviceIp()))
+                && (metrics.isEmpty() || metrics.contains(data.getMetricType()));
+    }
+
+    /**
+     * Snapshot'ı sıfırlar; sonraki frame filtreye uyan tüm değerleri içerir.
+     */
+    public void resync() {
+        lastSent.clear();
+    }
+
+    /**
+     * Değer son gönderilenden farklıysa snapshot'ı günceller ve true döner.
+     */
+    public boolean recordIfChanged(SnmpData data) {
+        String key = data.getDeviceIp() + '|' + data.getMetricType() + '|' + data.getIfIndex();
+        String value = data.getValue() != null ? data.getValue() : "";
+        return !value.equals(lastSent.put(key, value));
+    }
+}
@@ -3,6 +3,7 @@ package com.network_monitor.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -14,6 +15,7 @@ import lombok.ToString;
 @Setter
 @ToString
 @Document(collection = "snmp_data")
+@CompoundIndex(name = "device_metric_timestamp", def = "{'device_ip': 1, 'metric_type': 1, 'timestamp': 1}")
 public class SnmpData {
 
   @Id
@@ -34,9 +36,24 @@ public class SnmpData {
   @Field("metric_type")
   private String metricType;
 
+  // Arayüz metriklerinde ifIndex; cihaz geneli metriklerde null
+  @Field("if_index")
+  private Integer ifIndex;
+
   @Field("readable_value")
   private String readableValue;
 
+  // Sayısal SNMP tiplerinde (Counter, Gauge, Integer, TimeTicks) tipli değer
+  @Field("numeric_value")
+  private Double numericValue;
+
+  // Sayaç (Counter32/64) metriklerinde saniye başına artış, ör. bps
+  @Field("rate")
+  private Double rate;
+
+  @Field("rate_unit")
+  private String rateUnit;
+
   @Field("created_at")
   private LocalDateTime createdAt;
 
@@ -0,0 +1,98 @@
+package com.network_monitor.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Bir cihaz + metrik için sabit bir zaman penceresindeki tüm örnekleri tutan
+ * doküman. Örnekler (zaman, sayısal değer) çiftleri olarak paketlenir;
+ * cihaz/metrik bilgisi her örnekte tekrar edilmez.
+ */
+@Getter
+@Setter
+@ToString
+@Document(collection = "snmp_metric_buckets")
+@CompoundIndex(name = "device_metric_interface_bucket",
+    def = "{'device_ip': 1, 'metric_type': 1, 'if_index': 1, 'bucket_start': 1}", unique = true)
+public class SnmpMetricBucket {
+
+  @Id
+  private String id;
+
+  @Field("device_ip")
+  private String deviceIp;
+
+  @Field("metric_type")
+  private String metricType;
+
+  // Arayüz metriklerinde ifIndex; cihaz geneli metriklerde null
+  @Field("if_index")
+  private Integer ifIndex;
+
+  @Field("oid")
+  private String oid;
+
+  // Pencerenin başlangıcı
+  @Field("bucket_start")
+  private Instant bucketStart;
+
+  @Field("count")
+  private int count;
+
+  @Field("min")
+  private Double min;
+
+  @Field("max")
+  private Double max;
+
+  @Field("sum")
+  private Double sum;
+
+  // Sayısal olmayan metriklerde (ör. system_description) son değer
+  @Field("text")
+  private String text;
+
+  @Field("samples")
+  private List<Sample> samples = new ArrayList<>();
+
+  @Getter
+  @Setter
+  @ToString
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Sample {
+    // epoch millis
+    @Field("t")
+    private long t;
+
+    // Aggregation'lar için double; 2^53'ü aşan tam sayılarda yuvarlanmış olabilir
+    @Field("v")
+    private double v;
+
+    // Sayaçlarda poll anında hesaplanan oran; diğer metriklerde yazılmaz
+    @Field("r")
+    private Double r;
+
+    // double'a kayıpsız sığmayan tam sayılarda (ör. Counter64) kesin değer; diğerlerinde yazılmaz
+    @Field(name = "x", targetType = FieldType.DECIMAL128)
+    private BigDecimal x;
+
+    public Sample(long t, double v, Double r) {
+      this(t, v, r, null);
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.network_monitor.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Sabit bir çözünürlükte (ör. 5 dk, 1 saat) önceden hesaplanmış
+ * min/max/sum/count/last değerleri. Uzun aralıklı sorgular ham örnekler
+ * yerine bu koleksiyondan okunur.
+ */
+@Getter
+@Setter
+@ToString
+@Document(collection = "snmp_metric_rollups")
+@CompoundIndex(name = "device_metric_interface_resolution_bucket",
+    def = "{'device_ip': 1, 'metric_type': 1, 'if_index': 1, 'resolution_ms': 1, 'bucket_start': 1}", unique = true)
+public class SnmpMetricRollup {
+
+  @Id
+  private String id;
+
+  @Field("device_ip")
+  private String deviceIp;
+
+  @Field("metric_type")
+  private String metricType;
+
+  // Arayüz metriklerinde ifIndex; cihaz geneli metriklerde null
+  @Field("if_index")
+  private Integer ifIndex;
+
+  @Field("resolution_ms")
+  private long resolutionMs;
+
+  @Field("bucket_start")
+  private Instant bucketStart;
+
+  @Field("count")
+  private long count;
+
+  @Field("min")
+  private double min;
+
+  @Field("max")
+  private double max;
+
+  @Field("sum")
+  private double sum;
+
+  @Field("last")
+  private double last;
+
+  // last değerinin zamanı (epoch millis)
+  @Field("last_t")
+  private long lastT;
+}
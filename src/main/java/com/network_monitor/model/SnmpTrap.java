@@ -0,0 +1,81 @@
+package com.network_monitor.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Cihazdan alınan SNMP trap veya inform bildirimi.
+ */
+@Getter
+@Setter
+@ToString
+@Document(collection = "snmp_traps")
+@CompoundIndex(name = "source_received", def = "{'source_ip': 1, 'received_at': -1}")
+public class SnmpTrap {
+
+  public static final String TYPE_SUMMARY = "summary";
+
+  @Id
+  private String id;
+
+  @Field("source_ip")
+  private String sourceIp;
+
+  // v2c'de snmpTrapOID.0, v1'de RFC 3584'e göre enterprise/generic/specific'ten türetilir
+  @Field("trap_oid")
+  private String trapOid;
+
+  // "trap", "v1-trap", "inform" veya dedupe penceresi özeti için "summary"
+  @Field("type")
+  private String type;
+
+  // "1" veya "2c"
+  @Field("version")
+  private String version;
+
+  // Agent'ın sysUpTime değeri (TimeTicks)
+  @Field("uptime")
+  private Long uptime;
+
+  // Yalnızca "summary" kayıtlarında: dedupe penceresinde bastırılan aynı trap sayısı
+  @Field("suppressed_count")
+  private int suppressedCount;
+
+  // 30 gün sonra MongoDB tarafından silinir
+  @Indexed(name = "received_at_ttl", expireAfter = "30d")
+  @Field("received_at")
+  private LocalDateTime receivedAt;
+
+  @Field("varbinds")
+  private List<Varbind> varbinds = new ArrayList<>();
+
+  @Getter
+  @Setter
+  @ToString
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Varbind {
+    @Field("oid")
+    private String oid;
+
+    @Field("value")
+    private String value;
+
+    // SNMP tip adı, ör. Integer32, OCTET STRING
+    @Field("type")
+    private String type;
+  }
+}
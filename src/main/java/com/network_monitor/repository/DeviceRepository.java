@@ -0,0 +1,19 @@
+package com.network_monitor.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.network_monitor.model.Device;
+
+@Repository
+public interface DeviceRepository extends MongoRepository<Device, String> {
+
+  List<Device> findByEnabledTrue();
+
+  Optional<Device> findByIp(String ip);
+
+  Boolean existsByIp(String ip);
+}
@@ -12,8 +12,6 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.network_monitor.service.UserDetailsServiceImpl;
-
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,7 +23,7 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private TokenAuthenticationCache tokenAuthenticationCache;
 
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
@@ -36,18 +34,18 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         try {
 
             String path = request.getRequestURI();
-            System.out.println("Filter path: " + path);
+            logger.debug("Filter path: {}", path);
 
-            if (path.startsWith("/api/auth/") || path.startsWith("/api/test/")) {
+            // WebSocket handshake'i token'ı StompAuthChannelInterceptor'a bırakır (claims'ten, DB'siz)
+            if (path.startsWith("/api/auth/") || path.startsWith("/api/test/") || path.startsWith("/ws/")) {
                 filterChain.doFilter(request, response);
                 return;
             }
 
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // Token tek sefer parse edilir; aynı token'ın sonraki istekleri önbellekten gelir
+            UserDetails userDetails = jwt != null ? tokenAuthenticationCache.resolve(jwt) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null,
                         userDetails.getAuthorities());
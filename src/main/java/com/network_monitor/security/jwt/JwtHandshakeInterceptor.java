@@ -0,0 +1,42 @@
+package com.network_monitor.security.jwt;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+/**
+ * Handshake isteğindeki JWT cookie'sini oturum attribute'una kopyalar.
+ * Doğrulama burada yapılmaz; STOMP CONNECT sırasında
+ * {@link StompAuthChannelInterceptor} tarafından yapılır.
+ */
+@Component
+public class JwtHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String TOKEN_ATTRIBUTE = "netmon.jwt";
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+            WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            String token = jwtUtils.getJwtFromCookies(servletRequest.getServletRequest());
+            if (token != null) {
+                attributes.put(TOKEN_ATTRIBUTE, token);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+            WebSocketHandler wsHandler, Exception exception) {
+    }
+}
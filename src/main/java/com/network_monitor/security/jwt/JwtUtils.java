@@ -26,6 +26,7 @@ import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -42,6 +43,20 @@ public class JwtUtils {
   @Value("${netmon.app.jwtCookieName}")
   private String jwtCookie;
 
+  // Anahtar ve parser bir kez oluşturulur; ikisi de thread-safe
+  private SecretKey signingKey;
+  private JwtParser jwtParser;
+
+  @PostConstruct
+  public void init() {
+    // byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
+    byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
+    signingKey = Keys.hmacShaKeyFor(keyBytes);
+    jwtParser = Jwts.parser()
+        .verifyWith(signingKey)
+        .build();
+  }
+
   public String getJwtFromCookies(HttpServletRequest request) {
     Cookie cookie = WebUtils.getCookie(request, jwtCookie);
     if (cookie != null) {
@@ -53,8 +68,9 @@ public class JwtUtils {
 
   public ResponseCookie generateJwtCookie(UserDetailsImpl userPrincipal) {
     String jwt = generateTokenFromUsername(userPrincipal);
+    // "/" : cookie REST (/api) yanında WebSocket handshake'ine (/ws) de gönderilir
     ResponseCookie cookie = ResponseCookie.from(jwtCookie, jwt)
-        .path("/api")
+        .path("/")
         .maxAge(24 * 60 * 60)
         .httpOnly(true)
         .build();
@@ -63,7 +79,7 @@ public class JwtUtils {
 
   public ResponseCookie getCleanJwtCookie() {
     return ResponseCookie.from(jwtCookie, "")
-        .path("/api")
+        .path("/") // generateJwtCookie ile aynı path olmalı, aksi halde silinmez
         .maxAge(0) // cookie süresi 0 saniye = silinir
         .httpOnly(true) // JS erişimini engeller
         // .secure(true) // HTTPS ortamında önerilir
@@ -75,11 +91,7 @@ public class JwtUtils {
    * JWT 0.13.0 ile uyumlu getUserNameFromJwtToken metodu
    */
   public String getUserNameFromJwtToken(String token) {
-    JwtParser parser = Jwts.parser()
-        .verifyWith(getSigningKey())
-        .build();
-
-    Claims claims = parser.parseSignedClaims(token).getPayload();
+    Claims claims = jwtParser.parseSignedClaims(token).getPayload();
     return claims.getSubject();
   }
 
@@ -87,22 +99,23 @@ public class JwtUtils {
    * SecretKey döndüren metod (JWT 0.13.0 için önerilen)
    */
   private SecretKey getSigningKey() {
-    // byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-    byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-    return Keys.hmacShaKeyFor(keyBytes);
+    return signingKey;
   }
 
   /**
    * JWT 0.13.0 ile uyumlu validateJwtToken metodu
    */
   public boolean validateJwtToken(String authToken) {
-    try {
-      JwtParser parser = Jwts.parser()
-          .verifyWith(getSigningKey())
-          .build();
+    return parseValidClaims(authToken) != null;
+  }
 
-      parser.parseSignedClaims(authToken);
-      return true;
+  /**
+   * Token'ı tek seferde doğrulayıp claims'i döner; imza geçersizse, süresi
+   * dolmuşsa veya token bozuksa null.
+   */
+  public Claims parseValidClaims(String authToken) {
+    try {
+      return jwtParser.parseSignedClaims(authToken).getPayload();
     } catch (SignatureException e) {
       logger.error("Invalid JWT signature: {}", e.getMessage());
     } catch (MalformedJwtException e) {
@@ -114,7 +127,7 @@ public class JwtUtils {
     } catch (IllegalArgumentException e) {
       logger.error("JWT claims string is empty: {}", e.getMessage());
     }
-    return false;
+    return null;
   }
 
   /**
@@ -142,11 +155,7 @@ public class JwtUtils {
    * Token'dan claims çıkarmak için yardımcı metod
    */
   public Claims getClaimsFromToken(String token) {
-    JwtParser parser = Jwts.parser()
-        .verifyWith(getSigningKey())
-        .build();
-
-    return parser.parseSignedClaims(token).getPayload();
+    return jwtParser.parseSignedClaims(token).getPayload();
   }
 
   /**
@@ -184,14 +193,13 @@ public class JwtUtils {
       return false;
     }
 
-    boolean isValid = validateJwtToken(token);
-    if (!isValid) {
+    Claims claims = parseValidClaims(token);
+    if (claims == null) {
       logger.warn("Geçersiz veya süresi dolmuş JWT token");
       return false;
     }
 
     // Token geçerliyse
-    Claims claims = getClaimsFromToken(token);
     String username = claims.getSubject();
 
     if (username == null || username.isEmpty()) {
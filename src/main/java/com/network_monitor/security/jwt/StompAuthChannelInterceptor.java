@@ -0,0 +1,155 @@
+package com.network_monitor.security.jwt;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * STOMP CONNECT sırasında JWT'yi doğrular ve principal'ı oturuma bağlar.
+ * Principal token claims'inden (subject + roles) oluşturulur; kullanıcı
+ * veritabanından okunmaz, böylece deploy sonrası toplu yeniden bağlanmalar
+ * MongoDB'ye yük bindirmez. SUBSCRIBE/SEND yetkisi bellekte, oturumdaki
+ * principal üzerinden kontrol edilir.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StompAuthChannelInterceptor.class);
+
+    // Sunucunun kendi iç kullanımındaki topic önekleri; istemciler abone olamaz
+    private static final List<String> INTERNAL_PREFIXES = List.of(
+            "/topic/netmon.",
+            "/topic/simp-",
+            "/topic/unresolved-user-destination");
+
+    // Relay modunda broker'ların (RabbitMQ, ActiveMQ) wildcard karakterleri
+    private static final String WILDCARD_CHARACTERS = "*#>";
+
+    // İstemcilerin SEND yapabileceği tek önek (@MessageMapping hedefleri)
+    private static final String APPLICATION_PREFIX = "/app/";
+
+    // true: geçerli token olmadan CONNECT/SUBSCRIBE/SEND reddedilir
+    @Value("${netmon.ws.auth.required:false}")
+    private boolean authRequired;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        switch (accessor.getCommand()) {
+            case CONNECT -> authenticate(accessor);
+            case SUBSCRIBE -> authorizeSubscribe(accessor);
+            case SEND -> authorizeSend(accessor);
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private void authenticate(StompHeaderAccessor accessor) {
+        String token = resolveToken(accessor);
+        Claims claims = token != null ? jwtUtils.parseValidClaims(token) : null;
+
+        if (claims == null || claims.getSubject() == null) {
+            if (authRequired) {
+                throw new MessageDeliveryException("Unauthorized: valid JWT required");
+            }
+            return;
+        }
+
+        accessor.setUser(new UsernamePasswordAuthenticationToken(claims.getSubject(), null,
+                authoritiesOf(claims)));
+    }
+
+    /**
+     * İç topic'lere ve wildcard içeren hedeflere abonelik reddedilir; relay
+     * modunda ör. /topic/# tüm node'ların örnek akışını açardı.
+     */
+    private void authorizeSubscribe(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (destination != null && isForbiddenSubscription(destination)) {
+            logger.warn("Subscription to internal destination {} denied", destination);
+            throw new MessageDeliveryException("Forbidden destination: " + destination);
+        }
+        requireUser(accessor);
+    }
+
+    static boolean isForbiddenSubscription(String destination) {
+        for (int i = 0; i < destination.length(); i++) {
+            if (WILDCARD_CHARACTERS.indexOf(destination.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return INTERNAL_PREFIXES.stream().anyMatch(destination::startsWith);
+    }
+
+    /**
+     * İstemciler yalnızca uygulama hedeflerine (/app/**) gönderebilir;
+     * broker hedeflerine (/topic, /queue, /user) doğrudan yazılırsa sahte
+     * örnek veya bildirim yayınlanabilirdi.
+     */
+    private void authorizeSend(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(APPLICATION_PREFIX)) {
+            logger.warn("SEND to non-application destination {} denied", destination);
+            throw new MessageDeliveryException("Forbidden destination: " + destination);
+        }
+        requireUser(accessor);
+    }
+
+    private void requireUser(StompHeaderAccessor accessor) {
+        Principal user = accessor.getUser();
+        if (authRequired && user == null) {
+            throw new MessageDeliveryException("Unauthorized");
+        }
+    }
+
+    /**
+     * Önce STOMP Authorization header'ı ("Bearer ..."), yoksa handshake
+     * sırasında kopyalanan cookie kullanılır.
+     */
+    private String resolveToken(StompHeaderAccessor accessor) {
+        String header = accessor.getFirstNativeHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            return header.substring(7);
+        }
+
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        return attributes != null ? (String) attributes.get(JwtHandshakeInterceptor.TOKEN_ATTRIBUTE) : null;
+    }
+
+    private static Collection<? extends GrantedAuthority> authoritiesOf(Claims claims) {
+        Object roles = claims.get("roles");
+        if (!(roles instanceof List<?> roleList)) {
+            return List.of();
+        }
+        return roleList.stream()
+                .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+    }
+}
@@ -0,0 +1,95 @@
+package com.network_monitor.security.jwt;
+
+import java.time.Duration;
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.network_monitor.event.UserChangedEvent;
+import com.network_monitor.service.UserDetailsServiceImpl;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Doğrulanmış token -> UserDetails önbelleği. Aynı token ile gelen isteklerde
+ * imza tekrar doğrulanmaz ve kullanıcı MongoDB'den tekrar okunmaz. Kayıt en
+ * geç token'ın süresi dolduğunda (veya max-ttl sonunda) düşer; böylece rol
+ * değişiklikleri de en fazla max-ttl gecikmeyle yansır.
+ */
+@Component
+public class TokenAuthenticationCache {
+
+    @Value("${netmon.auth.token-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${netmon.auth.token-cache.max-ttl-ms:300000}")
+    private long maxTtlMs;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    private Cache<String, CachedAuthentication> cache;
+
+    private record CachedAuthentication(UserDetails userDetails, Duration ttl) {
+    }
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String token, CachedAuthentication entry) -> entry.ttl()))
+                .build();
+    }
+
+    /**
+     * Token geçerliyse kullanıcıyı döner, değilse null. İlk istekte token bir
+     * kez parse edilir ve kullanıcı yüklenir; sonraki istekler önbellekten
+     * karşılanır.
+     */
+    public UserDetails resolve(String token) {
+        CachedAuthentication cached = cache.getIfPresent(token);
+        if (cached != null) {
+            return cached.userDetails();
+        }
+
+        Claims claims = jwtUtils.parseValidClaims(token);
+        if (claims == null || claims.getSubject() == null) {
+            return null;
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        Duration ttl = Duration.ofMillis(maxTtlMs);
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            Duration untilExpiry = Duration.ofMillis(expiration.getTime() - System.currentTimeMillis());
+            ttl = untilExpiry.compareTo(ttl) < 0 ? untilExpiry : ttl;
+        }
+        if (!ttl.isNegative() && !ttl.isZero()) {
+            cache.put(token, new CachedAuthentication(userDetails, ttl));
+        }
+        return userDetails;
+    }
+
+    /**
+     * Kullanıcının önbellekteki tüm token'larını düşürür (ör. rol değişikliği).
+     */
+    public void evictUser(String username) {
+        cache.asMap().values().removeIf(entry -> entry.userDetails().getUsername().equals(username));
+    }
+
+    @EventListener
+    public void handleUserChanged(UserChangedEvent event) {
+        evictUser(event.getUsername());
+    }
+}
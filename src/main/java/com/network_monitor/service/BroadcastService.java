@@ -0,0 +1,54 @@
+package com.network_monitor.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import com.network_monitor.config.SlowConsumerInterceptor;
+
+/**
+ * STOMP yayınları için hazır byte payload'lı gönderim. Mesaj bir kez
+ * kodlanır; broker aynı byte dizisini tüm abonelere dağıtır ve mesaj
+ * dönüştürücüler (Jackson) yayın başına tekrar çalışmaz.
+ */
+@Service
+public class BroadcastService {
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private MetricFrameCodec frameCodec;
+
+    /**
+     * Payload'ı JSON olarak bir kez kodlayıp topic'e yayınlar. Yavaş
+     * oturumlarda bu mesaj atılabilir.
+     */
+    public void broadcast(String destination, Object payload) {
+        send(destination, null, frameCodec.encodeJson(payload), MimeTypeUtils.APPLICATION_JSON);
+    }
+
+    /**
+     * Hazır frame'i tek bir oturuma (/user/{sessionId}{destination}) gönderir.
+     * Yavaş oturumlarda bu mesaj atılabilir.
+     */
+    public void sendToSession(String sessionId, String destination, byte[] frame, MimeType contentType) {
+        send("/user/" + sessionId + destination, sessionId, frame, contentType);
+    }
+
+    private void send(String destination, String sessionId, byte[] payload, MimeType contentType) {
+        SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        if (sessionId != null) {
+            headerAccessor.setSessionId(sessionId);
+        }
+        headerAccessor.setContentType(contentType);
+        headerAccessor.setHeader(SlowConsumerInterceptor.DROPPABLE_HEADER, Boolean.TRUE);
+        headerAccessor.setLeaveMutable(true);
+        messagingTemplate.send(destination, MessageBuilder.createMessage(payload, headerAccessor.getMessageHeaders()));
+    }
+}
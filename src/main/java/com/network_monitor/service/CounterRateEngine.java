@@ -0,0 +1,108 @@
+package com.network_monitor.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Counter32/Counter64 OID'leri için cihaz ve OID başına önceki örneği tutar
+ * ve saniye başına artışı hesaplar. Durum nesneleri (cihaz, OID) başına bir
+ * kez oluşturulur; sonraki örneklerde sadece alanları güncellenir.
+ *
+ * Sayaç taşması (wrap) işaretsiz çıkarma ile, agent yeniden başlaması ise
+ * sysUpTime'ın geriye gitmesiyle algılanır. Yeniden başlamadan sonraki ilk
+ * örnek için oran üretilmez.
+ *
+ * Durum yalnızca zamanlanmış poll'larla güncellenmelidir; zamanlama dışı
+ * okumalar (ör. zorunlu yenileme) {@link #lastRate(String, String)} kullanır.
+ * Aksi halde aynı PDU ikinci kez işlenip 0 oran üretir veya sonraki poll'un
+ * örnekleme aralığı kısalır.
+ */
+@Component
+public class CounterRateEngine {
+
+  private static final long COUNTER32_MODULO = 1L << 32;
+
+  private final ConcurrentMap<String, DeviceState> devices = new ConcurrentHashMap<>();
+
+  /**
+   * Cihazın sysUpTime değerini (TimeTicks, 1/100 sn) bildirir. Uptime geriye
+   * gittiyse cihaz yeniden başlamıştır ve tüm sayaç geçmişi geçersiz sayılır.
+   */
+  public void observeUptime(String deviceIp, long uptimeTicks) {
+    DeviceState device = devices.computeIfAbsent(deviceIp, ip -> new DeviceState());
+    synchronized (device) {
+      if (device.uptimeTicks >= 0 && uptimeTicks < device.uptimeTicks) {
+        device.generation++;
+      }
+      device.uptimeTicks = uptimeTicks;
+    }
+  }
+
+  /**
+   * Sayacın saniye başına artışı. İlk örnekte, yeniden başlamadan sonra veya
+   * zaman ilerlemediyse NaN döner.
+   *
+   * @param timestampMs örneğin alındığı an (aynı PDU'daki tüm örnekler için aynı)
+   */
+  public double rate(String deviceIp, String oid, long rawValue, boolean counter64, long timestampMs) {
+    DeviceState device = devices.computeIfAbsent(deviceIp, ip -> new DeviceState());
+    CounterState counter = device.counters.computeIfAbsent(oid, key -> new CounterState());
+
+    synchronized (counter) {
+      long previousValue = counter.value;
+      long previousTimestamp = counter.timestampMs;
+      boolean valid = counter.generation == device.generation && previousTimestamp > 0;
+
+      counter.value = rawValue;
+      counter.timestampMs = timestampMs;
+      counter.generation = device.generation;
+
+      long elapsedMs = timestampMs - previousTimestamp;
+      if (!valid || elapsedMs <= 0) {
+        counter.rate = Double.NaN;
+        return Double.NaN;
+      }
+
+      double delta;
+      if (counter64) {
+        // İşaretsiz 64-bit çıkarma taşmayı kendiliğinden karşılar
+        long diff = rawValue - previousValue;
+        delta = diff >= 0 ? diff : diff + 0x1p64;
+      } else {
+        delta = Math.floorMod(rawValue - previousValue, COUNTER32_MODULO);
+      }
+      counter.rate = delta * 1000.0 / elapsedMs;
+      return counter.rate;
+    }
+  }
+
+  /**
+   * Son {@link #rate} çağrısında hesaplanan oran; durum değiştirilmez. Sayaç
+   * henüz görülmediyse veya cihaz o zamandan beri yeniden başladıysa NaN.
+   */
+  public double lastRate(String deviceIp, String oid) {
+    DeviceState device = devices.get(deviceIp);
+    CounterState counter = device != null ? device.counters.get(oid) : null;
+    if (counter == null) {
+      return Double.NaN;
+    }
+    synchronized (counter) {
+      return counter.generation == device.generation ? counter.rate : Double.NaN;
+    }
+  }
+
+  private static class DeviceState {
+    private final ConcurrentMap<String, CounterState> counters = new ConcurrentHashMap<>();
+    private long uptimeTicks = -1;
+    private volatile int generation;
+  }
+
+  private static class CounterState {
+    private long value;
+    private long timestampMs;
+    private int generation;
+    private double rate = Double.NaN;
+  }
+}
@@ -0,0 +1,179 @@
+package com.network_monitor.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.network_monitor.event.DeviceHealthChangedEvent;
+import com.network_monitor.model.EDeviceHealth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cihaz başına devre kesici. Art arda failure-threshold kez yanıt vermeyen
+ * cihaz OPEN olur ve istekleri SNMP'ye gitmeden reddedilir. open-ms sonra tek
+ * bir deneme isteğine izin verilir (HALF_OPEN); yanıt gelirse CLOSED, gelmezse
+ * tekrar OPEN olur. Durum değişiklikleri {@link DeviceHealthChangedEvent}
+ * olarak yayınlanır.
+ */
+@Service
+public class DeviceHealthService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceHealthService.class);
+
+    // Cihazı OPEN durumuna geçiren art arda timeout sayısı
+    @Value("${netmon.snmp.breaker.failure-threshold:3}")
+    private int failureThreshold;
+
+    // OPEN cihaza yeni deneme isteği gönderilmeden önce beklenen süre
+    @Value("${netmon.snmp.breaker.open-ms:60000}")
+    private long openMs;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        rejectedCounter = Counter.builder("snmp.breaker.rejected")
+                .description("SNMP requests rejected without sending because the device circuit is open")
+                .register(meterRegistry);
+        Gauge.builder("snmp.breaker.open", breakers,
+                b -> b.values().stream().filter(breaker -> breaker.state != EDeviceHealth.CLOSED).count())
+                .description("Devices whose circuit is open or half-open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * İsteğin gönderilip gönderilemeyeceğini döner. OPEN süresi dolmuş
+     * cihazda ilk çağrı deneme isteği olarak kabul edilir ve cihaz HALF_OPEN
+     * olur; deneme sonuçlanana kadar diğer istekler reddedilir.
+     */
+    public boolean tryAcquire(String deviceIp) {
+        Breaker breaker = breakers.get(deviceIp);
+        if (breaker == null) {
+            return true;
+        }
+
+        EDeviceHealth previous;
+        synchronized (breaker) {
+            if (breaker.state == EDeviceHealth.CLOSED) {
+                return true;
+            }
+            if (breaker.state == EDeviceHealth.HALF_OPEN || System.currentTimeMillis() < breaker.retryAtMs) {
+                rejectedCounter.increment();
+                return false;
+            }
+            previous = breaker.state;
+            breaker.state = EDeviceHealth.HALF_OPEN;
+        }
+        publish(deviceIp, previous, EDeviceHealth.HALF_OPEN);
+        return true;
+    }
+
+    public void recordSuccess(String deviceIp) {
+        Breaker breaker = breakers.get(deviceIp);
+        if (breaker == null) {
+            return;
+        }
+
+        EDeviceHealth previous;
+        synchronized (breaker) {
+            breaker.failures = 0;
+            previous = breaker.state;
+            breaker.state = EDeviceHealth.CLOSED;
+        }
+        if (previous != EDeviceHealth.CLOSED) {
+            logger.info("SNMP agent {} is reachable again", deviceIp);
+            publish(deviceIp, previous, EDeviceHealth.CLOSED);
+        }
+    }
+
+    public void recordFailure(String deviceIp) {
+        Breaker breaker = breakers.computeIfAbsent(deviceIp, ip -> new Breaker());
+
+        EDeviceHealth previous;
+        int failures;
+        synchronized (breaker) {
+            failures = ++breaker.failures;
+            previous = breaker.state;
+            if (previous == EDeviceHealth.CLOSED && failures < failureThreshold) {
+                return;
+            }
+            breaker.state = EDeviceHealth.OPEN;
+            breaker.retryAtMs = System.currentTimeMillis() + openMs;
+        }
+        if (previous != EDeviceHealth.OPEN) {
+            logger.warn("SNMP agent {} unreachable after {} attempts, circuit open for {} ms", deviceIp,
+                    failures, openMs);
+            publish(deviceIp, previous, EDeviceHealth.OPEN);
+        }
+    }
+
+    /**
+     * Deneme isteği sonuçlanmadan bırakıldıysa (ör. istek hiç gönderilemedi)
+     * HALF_OPEN cihaz tekrar OPEN olur ve bir sonraki deneme open-ms sonra
+     * yapılır. Diğer durumlarda etkisizdir.
+     */
+    public void releaseTrial(String deviceIp) {
+        Breaker breaker = breakers.get(deviceIp);
+        if (breaker == null) {
+            return;
+        }
+
+        synchronized (breaker) {
+            if (breaker.state != EDeviceHealth.HALF_OPEN) {
+                return;
+            }
+            breaker.state = EDeviceHealth.OPEN;
+            breaker.retryAtMs = System.currentTimeMillis() + openMs;
+        }
+        publish(deviceIp, EDeviceHealth.HALF_OPEN, EDeviceHealth.OPEN);
+    }
+
+    public EDeviceHealth getState(String deviceIp) {
+        Breaker breaker = breakers.get(deviceIp);
+        return breaker != null ? breaker.state : EDeviceHealth.CLOSED;
+    }
+
+    /**
+     * OPEN cihazın bekleme süresi dolduysa true; çağıran tek bir deneme
+     * isteği göndermelidir.
+     */
+    public boolean isProbeDue(String deviceIp) {
+        Breaker breaker = breakers.get(deviceIp);
+        return breaker != null && breaker.state == EDeviceHealth.OPEN
+                && System.currentTimeMillis() >= breaker.retryAtMs;
+    }
+
+    public Map<String, EDeviceHealth> getStates() {
+        Map<String, EDeviceHealth> states = new TreeMap<>();
+        breakers.forEach((ip, breaker) -> states.put(ip, breaker.state));
+        return states;
+    }
+
+    private void publish(String deviceIp, EDeviceHealth previous, EDeviceHealth current) {
+        eventPublisher.publishEvent(new DeviceHealthChangedEvent(this, deviceIp, previous, current));
+    }
+
+    private static final class Breaker {
+        private volatile EDeviceHealth state = EDeviceHealth.CLOSED;
+        private int failures;
+        private long retryAtMs;
+    }
+}
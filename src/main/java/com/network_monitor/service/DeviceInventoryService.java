@@ -0,0 +1,104 @@
+package com.network_monitor.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.network_monitor.model.Device;
+import com.network_monitor.repository.DeviceRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Sorgulanacak cihaz envanteri. Poller her döngüde MongoDB'ye gitmesin diye
+ * aktif cihaz listesi bellekte tutulur ve periyodik olarak yenilenir.
+ */
+@Service
+public class DeviceInventoryService {
+
+  private static final Logger logger = LoggerFactory.getLogger(DeviceInventoryService.class);
+
+  @Value("${netmon.poller.default-device-ip:192.168.1.1}")
+  private String defaultDeviceIp;
+
+  @Autowired
+  private DeviceRepository deviceRepository;
+
+  private volatile List<Device> activeDevices;
+  private Device defaultDevice;
+
+  @PostConstruct
+  public void init() {
+    defaultDevice = new Device(defaultDeviceIp);
+  }
+
+  /**
+   * Aktif cihazlar. Envanter boşsa veya henüz yüklenemediyse varsayılan cihaz
+   * döner.
+   */
+  public List<Device> getActiveDevices() {
+    List<Device> devices = activeDevices;
+    if (devices == null || devices.isEmpty()) {
+      return List.of(defaultDevice);
+    }
+    return devices;
+  }
+
+  /**
+   * IP'ye göre cihazı bulur; envanterde yoksa varsayılan ayarlarla yeni bir
+   * cihaz tanımı döner.
+   */
+  public Device resolve(String ip) {
+    if (ip == null || ip.isBlank()) {
+      return getActiveDevices().get(0);
+    }
+    for (Device device : getActiveDevices()) {
+      if (device.getIp().equals(ip)) {
+        return device;
+      }
+    }
+    return new Device(ip);
+  }
+
+  @Scheduled(fixedDelayString = "${netmon.poller.inventory-refresh-ms:60000}")
+  public void refresh() {
+    try {
+      activeDevices = List.copyOf(deviceRepository.findByEnabledTrue());
+    } catch (Exception e) {
+      logger.warn("Device inventory refresh failed: {}", e.getMessage());
+    }
+  }
+
+  public List<Device> findAll() {
+    return deviceRepository.findAll();
+  }
+
+  public Optional<Device> findById(String id) {
+    return deviceRepository.findById(id);
+  }
+
+  public Optional<Device> findByIp(String ip) {
+    return deviceRepository.findByIp(ip);
+  }
+
+  public boolean existsByIp(String ip) {
+    return deviceRepository.existsByIp(ip);
+  }
+
+  public Device save(Device device) {
+    Device saved = deviceRepository.save(device);
+    refresh();
+    return saved;
+  }
+
+  public void delete(String id) {
+    deviceRepository.deleteById(id);
+    refresh();
+  }
+}
@@ -0,0 +1,130 @@
+package com.network_monitor.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.Variable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.network_monitor.config.MetricsOidConstants;
+import com.network_monitor.model.Device;
+
+/**
+ * Cihazdaki tüm arayüzlerin sayaçlarını ifTable/ifXTable üzerinden okur.
+ * ifIndex listesi ve ifXTable desteği cihaz başına önbelleğe alınır; her
+ * poll'da sütunlar GETBULK ile birlikte yürünür, böylece 48 portlu bir switch
+ * birkaç PDU ile okunur.
+ */
+@Service
+public class InterfaceTableService {
+
+  private static final Logger logger = LoggerFactory.getLogger(InterfaceTableService.class);
+
+  // ifIndex listesinin yeniden keşfedilme aralığı
+  @Value("${netmon.interfaces.refresh-ms:600000}")
+  private long refreshMs;
+
+  // Tek GETBULK yanıtında sütun başına istenen en fazla satır
+  @Value("${netmon.interfaces.max-repetitions:64}")
+  private int maxRepetitions;
+
+  @Autowired
+  private SnmpService snmpService;
+
+  private final Map<String, InterfaceLayout> layouts = new ConcurrentHashMap<>();
+
+  /**
+   * Arayüz + sütun başına okunan tek bir sayaç değeri.
+   */
+  public record InterfaceCounter(int ifIndex, String metricName, String oid, Variable variable) {
+  }
+
+  private record InterfaceLayout(List<Integer> ifIndexes, boolean highCapacity, long discoveredAt) {
+  }
+
+  /**
+   * Cihazın tüm arayüzleri için sayaçları okur. ifIndex listesi yoksa veya
+   * süresi dolduysa önce keşif yapılır.
+   */
+  public CompletableFuture<List<InterfaceCounter>> pollAsync(Device device) {
+    InterfaceLayout layout = layouts.get(device.getIp());
+    if (layout != null && System.currentTimeMillis() - layout.discoveredAt() < refreshMs) {
+      return pollColumnsAsync(device, layout);
+    }
+    return discoverAsync(device).thenCompose(discovered -> pollColumnsAsync(device, discovered));
+  }
+
+  private CompletableFuture<InterfaceLayout> discoverAsync(Device device) {
+    List<OID> columns = List.of(
+        new OID(MetricsOidConstants.IF_INDEX_COLUMN),
+        new OID(MetricsOidConstants.INTERFACE_HC_COLUMNS.get("interface_in_octets")));
+
+    return snmpService.getTableAsync(device, columns, maxRepetitions).thenApply(rows -> {
+      List<Integer> ifIndexes = new ArrayList<>(rows.size());
+      boolean highCapacity = false;
+      for (Map.Entry<OID, Variable[]> row : rows.entrySet()) {
+        if (row.getValue()[0] != null && row.getKey().size() == 1) {
+          ifIndexes.add(row.getKey().get(0));
+        }
+        highCapacity |= row.getValue()[1] != null;
+      }
+
+      InterfaceLayout layout = new InterfaceLayout(ifIndexes, highCapacity, System.currentTimeMillis());
+      layouts.put(device.getIp(), layout);
+      logger.info("Discovered {} interfaces on {} ({} counters)", ifIndexes.size(), device.getIp(),
+          highCapacity ? "64-bit" : "32-bit");
+      return layout;
+    });
+  }
+
+  private CompletableFuture<List<InterfaceCounter>> pollColumnsAsync(Device device, InterfaceLayout layout) {
+    if (layout.ifIndexes().isEmpty()) {
+      return CompletableFuture.completedFuture(List.of());
+    }
+
+    Map<String, String> columnMap = layout.highCapacity()
+        ? MetricsOidConstants.INTERFACE_HC_COLUMNS
+        : MetricsOidConstants.INTERFACE_COLUMNS;
+    List<String> metricNames = new ArrayList<>(columnMap.keySet());
+    List<OID> columns = new ArrayList<>(metricNames.size());
+    for (String metricName : metricNames) {
+      columns.add(new OID(columnMap.get(metricName)));
+    }
+
+    int repetitions = Math.min(layout.ifIndexes().size(), Math.max(1, maxRepetitions));
+    return snmpService.getTableAsync(device, columns, repetitions).thenApply(rows -> {
+      List<InterfaceCounter> counters = new ArrayList<>(rows.size() * columns.size());
+      List<Integer> polledIndexes = new ArrayList<>(rows.size());
+
+      for (Map.Entry<OID, Variable[]> row : rows.entrySet()) {
+        if (row.getKey().size() != 1) {
+          continue;
+        }
+        int ifIndex = row.getKey().get(0);
+        polledIndexes.add(ifIndex);
+
+        Variable[] values = row.getValue();
+        for (int column = 0; column < values.length; column++) {
+          if (values[column] != null) {
+            counters.add(new InterfaceCounter(ifIndex, metricNames.get(column),
+                columns.get(column) + "." + ifIndex, values[column]));
+          }
+        }
+      }
+
+      // Arayüz eklendi/çıkarıldıysa bir sonraki poll'da yeniden keşfedilir
+      if (!polledIndexes.equals(layout.ifIndexes())) {
+        layouts.remove(device.getIp(), layout);
+      }
+      return counters;
+    });
+  }
+}
@@ -0,0 +1,130 @@
+package com.network_monitor.service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.network_monitor.event.SnmpDataRelayedEvent;
+import com.network_monitor.event.SnmpDataSavedEvent;
+import com.network_monitor.model.Device;
+import com.network_monitor.model.SnmpData;
+
+/**
+ * Cihaz ve metrik (arayüz metriklerinde ifIndex ile) bazında en son değerler.
+ * Poller'ların yayınladığı event'lerle beslenir; /all-metrics isteği SNMP'ye
+ * gitmeden buradan yanıtlanır. Her değer kendi timestamp'ini taşır.
+ */
+@Service
+public class LatestValueStore {
+
+  private static final Comparator<SnmpData> ORDER = Comparator
+      .comparing(SnmpData::getMetricType, Comparator.nullsLast(Comparator.naturalOrder()))
+      .thenComparing(SnmpData::getIfIndex, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+  @Autowired
+  private SnmpDataService snmpDataService;
+
+  // deviceIp -> (metrik anahtarı -> son değer)
+  private final Map<String, Map<String, SnmpData>> latest = new ConcurrentHashMap<>();
+
+  // deviceIp -> devam eden zorunlu yenileme; aynı anda gelen istekler bunu paylaşır
+  private final Map<String, CompletableFuture<List<SnmpData>>> inFlightRefreshes = new ConcurrentHashMap<>();
+
+  @EventListener
+  public void handleSnmpDataSaved(SnmpDataSavedEvent event) {
+    update(event.getSnmpData());
+  }
+
+  // Relay modunda diğer node'ların sorguları da buraya düşer
+  @EventListener
+  public void handleSnmpDataRelayed(SnmpDataRelayedEvent event) {
+    update(event.getSnmpData());
+  }
+
+  public void update(List<SnmpData> data) {
+    if (data == null) {
+      return;
+    }
+    for (SnmpData snmpData : data) {
+      if (snmpData.getDeviceIp() == null || snmpData.getMetricType() == null) {
+        continue;
+      }
+      latest.computeIfAbsent(snmpData.getDeviceIp(), ip -> new ConcurrentHashMap<>())
+          .merge(keyOf(snmpData), snmpData, LatestValueStore::newer);
+    }
+  }
+
+  /**
+   * Cihazın bilinen son değerleri, metrik adına göre sıralı; cihaz için
+   * henüz veri yoksa boş liste.
+   */
+  public List<SnmpData> latest(String deviceIp) {
+    Map<String, SnmpData> values = latest.get(deviceIp);
+    if (values == null) {
+      return List.of();
+    }
+    return values.values().stream().sorted(ORDER).toList();
+  }
+
+  /**
+   * Cihazın değerlerinden en eskisinin zamanı; veri yoksa null.
+   */
+  public LocalDateTime oldestTimestamp(String deviceIp) {
+    Map<String, SnmpData> values = latest.get(deviceIp);
+    if (values == null) {
+      return null;
+    }
+    return values.values().stream()
+        .map(SnmpData::getTimestamp)
+        .filter(timestamp -> timestamp != null)
+        .min(Comparator.naturalOrder())
+        .orElse(null);
+  }
+
+  /**
+   * Cihazı anlık sorgular ve sonucu store'a yazar. Aynı cihaz için devam
+   * eden bir yenileme varsa yeni sorgu başlatılmaz, aynı future döner.
+   */
+  public CompletableFuture<List<SnmpData>> refresh(Device device) {
+    CompletableFuture<List<SnmpData>> created = new CompletableFuture<>();
+    CompletableFuture<List<SnmpData>> existing = inFlightRefreshes.putIfAbsent(device.getIp(), created);
+    if (existing != null) {
+      return existing;
+    }
+
+    CompletableFuture<List<SnmpData>> poll;
+    try {
+      poll = snmpDataService.fetchAllMetricsAsync(device);
+    } catch (RuntimeException e) {
+      poll = CompletableFuture.failedFuture(e);
+    }
+    poll.whenComplete((data, error) -> {
+      inFlightRefreshes.remove(device.getIp(), created);
+      if (error != null) {
+        created.completeExceptionally(error);
+        return;
+      }
+      update(data);
+      created.complete(data);
+    });
+    return created;
+  }
+
+  private static String keyOf(SnmpData data) {
+    return data.getIfIndex() != null ? data.getMetricType() + "#" + data.getIfIndex() : data.getMetricType();
+  }
+
+  private static SnmpData newer(SnmpData current, SnmpData candidate) {
+    if (current.getTimestamp() == null || candidate.getTimestamp() == null) {
+      return candidate;
+    }
+    return candidate.getTimestamp().isBefore(current.getTimestamp()) ? current : candidate;
+  }
+}
@@ -0,0 +1,182 @@
+package com.network_monitor.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.network_monitor.model.SnmpData;
+
+/**
+ * WebSocket metrik akışı için kayıt ve frame kodlayıcı. Her kayıt olay
+ * başına bir kez kodlanır; abonelere giden frame'ler hazır kayıt byte'ları
+ * birleştirilerek oluşturulur.
+ *
+ * Binary frame (big-endian):
+ * <pre>
+ * frame  : magic 'M' (1) | version (1) | timestamp ms (8)
+ *          | sözlük girdi sayısı (4) | girdiler | kayıt sayısı (4) | kayıtlar
+ * girdi  : id (4) | uzunluk (2) + UTF-8
+ * kayıt  : cihaz id (4) | metrik id (4) | ifIndex, yoksa -1 (4) | timestamp ms (8) | flags (1)
+ *          | [değer double (8)] | [oran double (8)] | [metin uzunluğu (2) + UTF-8]
+ * flags  : 0x01 sayısal değer, 0x02 oran, 0x04 metin değer
+ * </pre>
+ * Cihaz IP'leri ve metrik adları sayısal id'lere çevrilir. Frame'deki
+ * kayıtların kullandığı tüm id'lerin girdileri her frame'de tekrar gönderilir;
+ * outbound thread'leri frame'leri sıra dışı teslim edebildiği ve yavaş
+ * oturumlarda frame atılabildiği için her frame kendi başına çözülebilir.
+ */
+@Component
+public class MetricFrameCodec {
+
+    public static final byte MAGIC = 'M';
+    public static final byte VERSION = 3;
+
+    private static final int FLAG_VALUE = 0x01;
+    private static final int FLAG_RATE = 0x02;
+    private static final int FLAG_TEXT = 0x04;
+
+    private static final byte[] JSON_FRAME_SEPARATOR = { ',' };
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> names = new CopyOnWriteArrayList<>();
+
+    /**
+     * Metni sözlüğe ekler ve id'sini döner; id'ler 0'dan başlayıp sırayla artar.
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (names) {
+            return ids.computeIfAbsent(name, key -> {
+                names.add(key);
+                return names.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * id'ye karşılık gelen sözlük girdisi.
+     */
+    public String nameOf(int id) {
+        return names.get(id);
+    }
+
+    public byte[] encodeRecord(SnmpData data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            Double value = data.getNumericValue();
+            Double rate = data.getRate();
+            String text = value == null && data.getValue() != null ? data.getValue() : null;
+
+            out.writeInt(intern(data.getDeviceIp()));
+            out.writeInt(intern(data.getMetricType()));
+            out.writeInt(data.getIfIndex() != null ? data.getIfIndex() : -1);
+            out.writeLong(timestampOf(data));
+            out.writeByte((value != null ? FLAG_VALUE : 0) | (rate != null ? FLAG_RATE : 0)
+                    | (text != null ? FLAG_TEXT : 0));
+            if (value != null) {
+                out.writeDouble(value);
+            }
+            if (rate != null) {
+                out.writeDouble(rate);
+            }
+            if (text != null) {
+                byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+                int length = Math.min(utf8.length, 0xFFFF);
+                out.writeShort(length);
+                out.write(utf8, 0, length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Kayıtları tek frame'de birleştirir; kayıtların başındaki cihaz ve
+     * metrik id'lerinin sözlük girdileri frame'e eklenir.
+     */
+    public byte[] binaryFrame(List<byte[]> records, long timestamp) {
+        Set<Integer> referenced = new TreeSet<>();
+        int size = 18;
+        for (byte[] record : records) {
+            ByteBuffer header = ByteBuffer.wrap(record, 0, 8);
+            referenced.add(header.getInt());
+            referenced.add(header.getInt());
+            size += record.length;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(size + referenced.size() * 20);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(timestamp);
+            out.writeInt(referenced.size());
+            for (int id : referenced) {
+                byte[] utf8 = nameOf(id).getBytes(StandardCharsets.UTF_8);
+                out.writeInt(id);
+                out.writeShort(utf8.length);
+                out.write(utf8);
+            }
+            out.writeInt(records.size());
+            for (byte[] record : records) {
+                out.write(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public byte[] encodeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("JSON encoding failed", e);
+        }
+    }
+
+    /**
+     * Önceden kodlanmış JSON kayıtlarından WebSocketMessage biçiminde
+     * ({"type", "data", "timestamp"}) bir frame oluşturur.
+     */
+    public byte[] jsonFrame(String type, List<byte[]> records, long timestamp) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + records.size() * 160);
+        out.writeBytes(("{\"type\":" + new String(encodeJson(type), StandardCharsets.UTF_8) + ",\"data\":[")
+                .getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < records.size(); i++) {
+            if (i > 0) {
+                out.writeBytes(JSON_FRAME_SEPARATOR);
+            }
+            out.writeBytes(records.get(i));
+        }
+        out.writeBytes(("],\"timestamp\":" + timestamp + "}").getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    public static long timestampOf(SnmpData data) {
+        return data.getTimestamp() != null
+                ? data.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+    }
+}
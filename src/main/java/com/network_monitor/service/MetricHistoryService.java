@@ -0,0 +1,261 @@
+package com.network_monitor.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.network_monitor.config.MetricsOidConstants;
+import com.network_monitor.dto.response.MetricAggregate;
+import com.network_monitor.dto.response.MetricHistoryPage;
+import com.network_monitor.dto.response.MetricPoint;
+import com.network_monitor.model.SnmpMetricBucket;
+import com.network_monitor.model.SnmpMetricBucket.Sample;
+import com.network_monitor.model.SnmpMetricRollup;
+
+/**
+ * Bucket'lanmış metrik geçmişini okur. Depoda yalnızca sayısal değerler
+ * tutulur; readable_value okuma sırasında hesaplanır.
+ */
+@Service
+public class MetricHistoryService {
+
+  @Value("${netmon.persistence.bucket-window-ms:3600000}")
+  private long bucketWindowMs;
+
+  @Value("${netmon.history.max-page-size:10000}")
+  private int maxPageSize;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  @Autowired
+  private SnmpService snmpService;
+
+  @Autowired
+  private MetricRollupService metricRollupService;
+
+  /**
+   * Zaman aralığındaki noktaları keyset (zaman cursor'ı) ile sayfalı döner.
+   * Sorgu (device_ip, metric_type, bucket_start) index'i üzerinden gider ve
+   * bucket'lar cursor ile okunur; sayfa dolunca okuma durur.
+   *
+   * @param ifIndex arayüz metrikleri için ifIndex; cihaz geneli metriklerde null
+   * @param cursor önceki sayfanın nextCursor değeri; ilk sayfa için null
+   */
+  public MetricHistoryPage findPage(String deviceIp, String metricType, Integer ifIndex, Instant from, Instant to,
+      Long cursor, int limit) {
+    int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+    long lowerBound = cursor != null ? cursor + 1 : from.toEpochMilli();
+    long upperBound = to.toEpochMilli();
+
+    Query query = Query.query(Criteria.where("deviceIp").is(deviceIp)
+        .and("metricType").is(metricType)
+        .and("ifIndex").is(ifIndex)
+        .and("bucketStart").gte(Instant.ofEpochMilli(lowerBound - Math.floorMod(lowerBound, bucketWindowMs)))
+        .lte(to))
+        .with(Sort.by("bucketStart").ascending());
+    // Yalnızca gereken alanlar okunur
+    query.fields().include("deviceIp", "metricType", "oid", "samples");
+
+    List<MetricPoint> points = new ArrayList<>(Math.min(pageSize, 1024));
+    boolean hasMore = false;
+
+    try (Stream<SnmpMetricBucket> buckets = mongoTemplate.stream(query, SnmpMetricBucket.class)) {
+      Iterator<SnmpMetricBucket> iterator = buckets.iterator();
+      page: while (iterator.hasNext()) {
+        SnmpMetricBucket bucket = iterator.next();
+        for (Sample sample : bucket.getSamples()) {
+          if (sample.getT() < lowerBound || sample.getT() > upperBound) {
+            continue;
+          }
+          if (points.size() == pageSize) {
+            hasMore = true;
+            break page;
+          }
+          points.add(toMetricPoint(metricType, sample));
+        }
+      }
+    }
+
+    Long nextCursor = hasMore ? points.get(points.size() - 1).getTimestamp() : null;
+    return new MetricHistoryPage(deviceIp, metricType, ifIndex, points, nextCursor);
+  }
+
+  /**
+   * Aralığı verilen çözünürlükte pencerelere bölüp her pencere için
+   * min/max/avg/last döner. Çözünürlüğe uyan bir rollup varsa aralığın
+   * rollup'larla eksiksiz kapsanan tam pencereleri önceden hesaplanmış
+   * rollup'lardan, kalan baş ve son kısımlar (rollup'lardan önceki veri,
+   * henüz yazılmamış son örnekler, yarım pencereler) ham bucket'lardan
+   * MongoDB aggregation pipeline'ında toplanır ve pencere bazında
+   * birleştirilir; uygulamaya sadece sonuç pencereleri gelir.
+   * Sayaç metriklerinde değerler saniye başına orandır.
+   */
+  public List<MetricAggregate> findAggregates(String deviceIp, String metricType, Integer ifIndex, Instant from,
+      Instant to, long resolutionMs) {
+    long fromMs = from.toEpochMilli();
+    // Ham pipeline'lar [başlangıç, bitiş) aralığıyla çalışır; to dahil
+    long untilMs = to.toEpochMilli() + 1;
+    Map<Long, Window> windows = new TreeMap<>();
+
+    // Rollup'tan yalnızca [from, to] içinde kalan ve eksiksiz yazılmış tam pencereler okunur
+    long rollupFrom = untilMs;
+    long rollupUntil = untilMs;
+    long rollupResolution = metricRollupService.bestResolutionFor(resolutionMs);
+    Instant coveredFrom = rollupResolution > 0
+        ? metricRollupService.coveredFrom(deviceIp, metricType, ifIndex, rollupResolution)
+        : null;
+    if (coveredFrom != null) {
+      long start = Math.max(coveredFrom.toEpochMilli(), alignUp(fromMs, rollupResolution));
+      long end = Math.min(metricRollupService.coveredUntil(rollupResolution).toEpochMilli(),
+          untilMs - Math.floorMod(untilMs, rollupResolution));
+      if (start < end) {
+        rollupFrom = start;
+        rollupUntil = end;
+      }
+    }
+
+    // Parçalar zaman sırasında işlenir; pencerenin last değeri en son parçadan gelir
+    if (fromMs < rollupFrom) {
+      aggregate(SnmpMetricBucket.class, rawPipeline(deviceIp, metricType, ifIndex, fromMs, rollupFrom, resolutionMs),
+          windows);
+    }
+    if (rollupFrom < rollupUntil) {
+      aggregate(SnmpMetricRollup.class, rollupPipeline(deviceIp, metricType, ifIndex, rollupFrom, rollupUntil,
+          rollupResolution, resolutionMs), windows);
+    }
+    if (rollupUntil < untilMs) {
+      aggregate(SnmpMetricBucket.class, rawPipeline(deviceIp, metricType, ifIndex, rollupUntil, untilMs,
+          resolutionMs), windows);
+    }
+    return toMetricAggregates(windows);
+  }
+
+  private void aggregate(Class<?> entityClass, List<Document> pipeline, Map<Long, Window> windows) {
+    String collection = mongoTemplate.getCollectionName(entityClass);
+    for (Document result : mongoTemplate.getCollection(collection).aggregate(pipeline).allowDiskUse(true)) {
+      windows.computeIfAbsent(result.get("_id", Number.class).longValue(), k -> new Window()).merge(result);
+    }
+  }
+
+  private static List<MetricAggregate> toMetricAggregates(Map<Long, Window> windows) {
+    List<MetricAggregate> result = new ArrayList<>(windows.size());
+    windows.forEach((windowStart, window) -> result.add(new MetricAggregate(windowStart, window.min, window.max,
+        window.count > 0 ? window.sum / window.count : 0, window.last, window.count)));
+    return result;
+  }
+
+  private static long alignUp(long millis, long resolutionMs) {
+    long remainder = Math.floorMod(millis, resolutionMs);
+    return remainder == 0 ? millis : millis - remainder + resolutionMs;
+  }
+
+  // [fromMs, untilMs) aralığındaki ham örnekler
+  private List<Document> rawPipeline(String deviceIp, String metricType, Integer ifIndex, long fromMs, long untilMs,
+      long resolutionMs) {
+    // Sayaçlarda ham değer sürekli artar; pencereler poll anında hesaplanan oran üzerinden toplanır
+    boolean counter = MetricsOidConstants.COUNTER_METRICS.contains(metricType);
+    String field = counter ? "$samples.r" : "$samples.v";
+    Document sampleMatch = new Document("samples.t", new Document("$gte", fromMs)
+        .append("$lt", untilMs));
+    if (counter) {
+      sampleMatch.append("samples.r", new Document("$ne", null));
+    }
+    return List.of(
+        new Document("$match", new Document("device_ip", deviceIp)
+            .append("metric_type", metricType)
+            .append("if_index", ifIndex)
+            .append("bucket_start", new Document("$gte", new Date(fromMs - Math.floorMod(fromMs, bucketWindowMs)))
+                .append("$lt", new Date(untilMs)))),
+        // Bucket'lar ve içindeki örnekler zaten zaman sırasında; $last buna dayanır
+        new Document("$sort", new Document("bucket_start", 1)),
+        new Document("$unwind", "$samples"),
+        new Document("$match", sampleMatch),
+        new Document("$group", new Document("_id", windowStart("$samples.t", resolutionMs))
+            .append("min", new Document("$min", field))
+            .append("max", new Document("$max", field))
+            .append("sum", new Document("$sum", field))
+            .append("count", new Document("$sum", 1))
+            .append("last", new Document("$last", field))),
+        new Document("$sort", new Document("_id", 1)));
+  }
+
+  // [fromMs, untilMs) aralığında başlayan, rollupResolution'a hizalı rollup pencereleri
+  private List<Document> rollupPipeline(String deviceIp, String metricType, Integer ifIndex, long fromMs,
+      long untilMs, long rollupResolution, long resolutionMs) {
+    Document bucketMillis = new Document("$toLong", "$bucket_start");
+    return List.of(
+        new Document("$match", new Document("device_ip", deviceIp)
+            .append("metric_type", metricType)
+            .append("if_index", ifIndex)
+            .append("resolution_ms", rollupResolution)
+            .append("bucket_start", new Document("$gte", new Date(fromMs))
+                .append("$lt", new Date(untilMs)))),
+        new Document("$sort", new Document("bucket_start", 1)),
+        new Document("$group", new Document("_id", windowStart(bucketMillis, resolutionMs))
+            .append("min", new Document("$min", "$min"))
+            .append("max", new Document("$max", "$max"))
+            .append("sum", new Document("$sum", "$sum"))
+            .append("count", new Document("$sum", "$count"))
+            .append("last", new Document("$last", "$last"))),
+        new Document("$sort", new Document("_id", 1)));
+  }
+
+  // t - (t mod resolution)
+  private static Document windowStart(Object millis, long resolutionMs) {
+    return new Document("$subtract", List.of(millis, new Document("$mod", List.of(millis, resolutionMs))));
+  }
+
+  private MetricPoint toMetricPoint(String metricType, Sample sample) {
+    String value = sample.getX() != null ? sample.getX().toPlainString() : formatValue(sample.getV());
+    if (sample.getR() != null) {
+      String unit = snmpService.toRateUnit(metricType);
+      return new MetricPoint(sample.getT(), sample.getV(), value, snmpService.toReadableRate(sample.getR(), unit),
+          sample.getR());
+    }
+    return new MetricPoint(sample.getT(), sample.getV(), value, snmpService.toReadableValue(metricType, value),
+        null);
+  }
+
+  private static String formatValue(double value) {
+    // Tam sayı değerler SNMP'deki gibi ondalıksız gösterilir
+    if (value == Math.rint(value) && Math.abs(value) < 1e18) {
+      return Long.toString((long) value);
+    }
+    return Double.toString(value);
+  }
+
+  /**
+   * Bir sonuç penceresine farklı kaynaklardan (ham, rollup) gelen kısmi
+   * toplamların birleşimi.
+   */
+  private static class Window {
+    private long count;
+    private double sum;
+    private double min = Double.MAX_VALUE;
+    private double max = -Double.MAX_VALUE;
+    private double last;
+
+    void merge(Document partial) {
+      count += partial.get("count", Number.class).longValue();
+      sum += partial.get("sum", Number.class).doubleValue();
+      min = Math.min(min, partial.get("min", Number.class).doubleValue());
+      max = Math.max(max, partial.get("max", Number.class).doubleValue());
+      last = partial.get("last", Number.class).doubleValue();
+    }
+  }
+}
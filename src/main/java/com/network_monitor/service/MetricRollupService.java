@@ -0,0 +1,205 @@
+package com.network_monitor.service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.network_monitor.config.MetricsOidConstants;
+import com.network_monitor.event.SnmpDataSavedEvent;
+import com.network_monitor.model.SnmpData;
+import com.network_monitor.model.SnmpMetricRollup;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * SnmpDataSavedEvent geldikçe snmp_metric_rollups koleksiyonunu artımlı
+ * günceller. Örnekler bellekte (cihaz, metrik, çözünürlük, pencere) başına
+ * toplanır ve periyodik olarak tek bir bulk upsert ile yazılır. Sayaç
+ * metriklerinde sürekli artan ham değer yerine saniye başına oran toplanır;
+ * oranı olmayan (ilk veya yeniden başlama sonrası) örnekler atlanır.
+ */
+@Service
+public class MetricRollupService {
+
+  private static final Logger logger = LoggerFactory.getLogger(MetricRollupService.class);
+
+  // Tutulan rollup çözünürlükleri (ms), varsayılan 5 dk ve 1 saat
+  @Value("${netmon.rollup.resolutions-ms:300000,3600000}")
+  private long[] resolutionsMs;
+
+  @Value("${netmon.rollup.flush-interval-ms:10000}")
+  private long flushIntervalMs;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  private final Object lock = new Object();
+  private Map<RollupKey, Accumulator> pending = new HashMap<>();
+  private ScheduledExecutorService flusher;
+
+  // Bu ana kadar alınan tüm örnekler rollup koleksiyonuna yazıldı (epoch millis)
+  private volatile long flushedThrough;
+
+  @PostConstruct
+  public void start() {
+    flushedThrough = System.currentTimeMillis();
+    flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "metric-rollup-writer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    flusher.shutdown();
+    flush();
+  }
+
+  @EventListener
+  public void onSnmpDataSaved(SnmpDataSavedEvent event) {
+    if (event.getSnmpData() == null) {
+      return;
+    }
+
+    synchronized (lock) {
+      for (SnmpData snmpData : event.getSnmpData()) {
+        Double value = MetricsOidConstants.COUNTER_METRICS.contains(snmpData.getMetricType())
+            ? snmpData.getRate()
+            : snmpData.getNumericValue();
+        if (value == null || snmpData.getTimestamp() == null) {
+          continue;
+        }
+
+        long t = snmpData.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        for (long resolution : resolutionsMs) {
+          RollupKey key = new RollupKey(snmpData.getDeviceIp(), snmpData.getMetricType(), snmpData.getIfIndex(),
+              resolution, t - Math.floorMod(t, resolution));
+          pending.computeIfAbsent(key, k -> new Accumulator()).add(t, value);
+        }
+      }
+    }
+  }
+
+  /**
+   * İstenen çözünürlüğe tam bölünen en büyük rollup çözünürlüğü; uygun
+   * rollup yoksa 0.
+   */
+  public long bestResolutionFor(long requestedMs) {
+    long best = 0;
+    for (long resolution : resolutionsMs) {
+      if (resolution <= requestedMs && requestedMs % resolution == 0 && resolution > best) {
+        best = resolution;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Verilen anahtar için rollup'ların eksiksiz olduğu ilk pencerenin
+   * başlangıcı. En eski pencere rollup'lar işlemeye başladığında yarıda
+   * kalmış olabileceğinden kapsama bir sonraki pencereden başlar; hiç rollup
+   * yoksa null.
+   */
+  public Instant coveredFrom(String deviceIp, String metricType, Integer ifIndex, long resolutionMs) {
+    Query query = Query.query(Criteria.where("deviceIp").is(deviceIp)
+        .and("metricType").is(metricType)
+        .and("ifIndex").is(ifIndex)
+        .and("resolutionMs").is(resolutionMs))
+        .with(Sort.by("bucketStart").ascending())
+        .limit(1);
+    query.fields().include("bucketStart");
+    SnmpMetricRollup earliest = mongoTemplate.findOne(query, SnmpMetricRollup.class);
+    return earliest != null ? earliest.getBucketStart().plusMillis(resolutionMs) : null;
+  }
+
+  /**
+   * Verilen çözünürlükte tamamı yazılmış son pencerenin bitişi. Bu andan
+   * sonraki örnekler henüz bellekteki accumulator'da olabilir.
+   */
+  public Instant coveredUntil(long resolutionMs) {
+    long through = flushedThrough;
+    return Instant.ofEpochMilli(through - Math.floorMod(through, resolutionMs));
+  }
+
+  private void flush() {
+    Map<RollupKey, Accumulator> batch;
+    long cutoff;
+    synchronized (lock) {
+      cutoff = System.currentTimeMillis();
+      if (pending.isEmpty()) {
+        flushedThrough = cutoff;
+        return;
+      }
+      batch = pending;
+      pending = new HashMap<>();
+    }
+
+    try {
+      BulkOperations operations = mongoTemplate.bulkOps(BulkMode.UNORDERED, SnmpMetricRollup.class);
+      batch.forEach((key, acc) -> {
+        Query query = Query.query(Criteria.where("deviceIp").is(key.deviceIp())
+            .and("metricType").is(key.metricType())
+            .and("ifIndex").is(key.ifIndex())
+            .and("resolutionMs").is(key.resolutionMs())
+            .and("bucketStart").is(Instant.ofEpochMilli(key.bucketStart())));
+        Update update = new Update()
+            .inc("count", acc.count)
+            .inc("sum", acc.sum)
+            .min("min", acc.min)
+            .max("max", acc.max)
+            .set("last", acc.last)
+            .set("lastT", acc.lastT);
+        operations.upsert(query, update);
+      });
+      operations.execute();
+      flushedThrough = cutoff;
+    } catch (Exception e) {
+      logger.error("Rollup update of {} windows failed: {}", batch.size(), e.getMessage());
+    }
+  }
+
+  private record RollupKey(String deviceIp, String metricType, Integer ifIndex, long resolutionMs,
+      long bucketStart) {
+  }
+
+  private static class Accumulator {
+    private long count;
+    private double sum;
+    private double min = Double.MAX_VALUE;
+    private double max = -Double.MAX_VALUE;
+    private double last;
+    private long lastT = Long.MIN_VALUE;
+
+    void add(long t, double value) {
+      count++;
+      sum += value;
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+      if (t >= lastT) {
+        last = value;
+        lastT = t;
+      }
+    }
+  }
+}
@@ -1,29 +1,99 @@
 package com.network_monitor.service;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
-import org.snmp4j.CommunityTarget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.snmp4j.PDU;
-import org.snmp4j.Snmp;
+import org.snmp4j.Target;
 import org.snmp4j.event.ResponseEvent;
 import org.snmp4j.mp.SnmpConstants;
 import org.snmp4j.smi.OID;
-import org.snmp4j.smi.OctetString;
 import org.snmp4j.smi.UdpAddress;
 import org.snmp4j.smi.VariableBinding;
-import org.snmp4j.transport.DefaultUdpTransportMapping;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.network_monitor.config.MetricsOidConstants;
+import com.network_monitor.dto.response.OidWalkStats;
+import com.network_monitor.dto.response.OidWalkStats.SubtreeStats;
+import com.network_monitor.model.Device;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
 @Service
 public class OidDiscoveryService {
 
+    private static final Logger logger = LoggerFactory.getLogger(OidDiscoveryService.class);
+
+    // Her GETBULK yanıtında istenen en fazla satır
+    @Value("${netmon.discovery.max-repetitions:25}")
+    private int maxRepetitions;
+
+    // Aynı anda yürünen alt ağaç sayısı
+    @Value("${netmon.discovery.parallelism:4}")
+    private int parallelism;
+
+    // Stream endpoint'inde yazılmayı bekleyen en fazla OID
+    @Value("${netmon.discovery.stream-buffer-size:1000}")
+    private int streamBufferSize;
+
+    // Kuyruk bu süre boyunca dolu kalırsa (istemci okumuyor) stream iptal edilir
+    @Value("${netmon.discovery.stream-stall-timeout-ms:30000}")
+    private long streamStallTimeoutMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SnmpSessionManager sessionManager;
+
+    @Autowired
+    private SnmpService snmpService;
+
+    @Autowired
+    private DeviceInventoryService deviceInventoryService;
+
+    private final Map<String, OidWalkStats> lastWalkStats = new ConcurrentHashMap<>();
+    private final Map<String, AtomicBoolean> activeStreams = new ConcurrentHashMap<>();
+    private ExecutorService discoveryExecutor;
+
+    @PostConstruct
+    public void init() {
+        discoveryExecutor = newWalkExecutor("oid-discovery-");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        discoveryExecutor.shutdownNow();
+    }
+
     public Map<String, String> discoverAllOids(String routerIP) {
-        Map<String, String> discoveredOids = new HashMap<>();
+        Map<String, String> discoveredOids = new ConcurrentHashMap<>();
 
         try {
-            walkOidTree(routerIP, "1.3.6.1", discoveredOids);
+            walk(routerIP, vb -> {
+                discoveredOids.put(vb.getOid().toString(), vb.getVariable().toString());
+                return true;
+            });
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -31,48 +101,243 @@ public class OidDiscoveryService {
         return discoveredOids;
     }
 
-    private void walkOidTree(String ip, String startOid, Map<String, String> results) throws IOException {
-        DefaultUdpTransportMapping transport = new DefaultUdpTransportMapping();
-        Snmp snmp = new Snmp(transport);
-        transport.listen();
+    /**
+     * Cihazın MIB ağacını alt ağaçlara bölüp paralel yürür. Bulunan her OID
+     * sink'e verilir (sink birden fazla thread'den çağrılabilir); sink false
+     * dönerse ilgili alt ağacın yürüyüşü durur.
+     */
+    public OidWalkStats walk(String routerIP, Predicate<VariableBinding> sink) {
+        return walkAsync(routerIP, sink).join();
+    }
+
+    /**
+     * {@link #walk(String, Predicate)} metodunun bloklamayan hali; future tüm
+     * alt ağaçlar bittiğinde istatistiklerle tamamlanır.
+     */
+    public CompletableFuture<OidWalkStats> walkAsync(String routerIP, Predicate<VariableBinding> sink) {
+        return walkAsync(routerIP, sink, discoveryExecutor);
+    }
+
+    private CompletableFuture<OidWalkStats> walkAsync(String routerIP, Predicate<VariableBinding> sink,
+            ExecutorService executor) {
+        Device device = deviceInventoryService.resolve(routerIP);
+        Target<UdpAddress> target = snmpService.resolveTargetAsync(device).join();
+        long start = System.nanoTime();
+
+        Map<String, CompletableFuture<SubtreeStats>> subtreeWalks = new LinkedHashMap<>();
+        for (WalkRange range : walkRanges()) {
+            subtreeWalks.put(range.name(),
+                    CompletableFuture.supplyAsync(() -> walkRange(target, range, sink), executor));
+        }
+
+        return CompletableFuture.allOf(subtreeWalks.values().toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            OidWalkStats stats = new OidWalkStats(device.getIp());
+            subtreeWalks.forEach((name, subtreeWalk) -> {
+                SubtreeStats subtreeStats = subtreeWalk.join();
+                stats.getSubtrees().put(name, subtreeStats);
+                stats.setPdusSent(stats.getPdusSent() + subtreeStats.getPdusSent());
+                stats.setOidCount(stats.getOidCount() + subtreeStats.getOidCount());
+            });
+
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            stats.setDurationMs(durationMs);
+            stats.setOidsPerSecond(durationMs > 0 ? stats.getOidCount() * 1000.0 / durationMs : stats.getOidCount());
+
+            logger.info("OID walk for {} finished: {} OIDs, {} PDUs, {} ms ({} OIDs/s)", device.getIp(),
+                    stats.getOidCount(), stats.getPdusSent(), durationMs, Math.round(stats.getOidsPerSecond()));
+            lastWalkStats.put(device.getIp(), stats);
+            return stats;
+        });
+    }
+
+    /**
+     * Keşfedilen OID'leri bulundukça NDJSON satırı olarak yazar. Yürüyüş ile
+     * yazım arasında sınırlı bir kuyruk vardır: istemci yavaş okursa kuyruk
+     * dolar ve SNMP istekleri bekler, böylece bellek kullanımı sabit kalır.
+     * Her stream'in yürüyüşü kendine ait, parallelism thread ile sınırlı bir
+     * havuzda çalışır; yavaş bir istemci yalnızca kendi yürüyüşünü bekletir,
+     * diğer stream'leri ve keşifleri tıkamaz. Kuyruk stream-stall-timeout-ms
+     * boyunca dolu kalırsa, istemci bağlantıyı kapatırsa veya
+     * {@link #cancelStream(String)} çağrılırsa yürüyüş durdurulur.
+     */
+    public void streamAllOids(String routerIP, String walkId, OutputStream out) throws IOException {
+        BlockingQueue<VariableBinding> queue = new ArrayBlockingQueue<>(Math.max(1, streamBufferSize));
+        AtomicBoolean cancelled = new AtomicBoolean();
+        activeStreams.put(walkId, cancelled);
+        ExecutorService streamExecutor = newWalkExecutor("oid-stream-" + walkId + "-");
+
+        CompletableFuture<OidWalkStats> walk;
+        try {
+            walk = walkAsync(routerIP, vb -> {
+                try {
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(streamStallTimeoutMs);
+                    while (!cancelled.get()) {
+                        if (queue.offer(vb, 100, TimeUnit.MILLISECONDS)) {
+                            return true;
+                        }
+                        if (System.nanoTime() - deadline >= 0) {
+                            logger.warn("OID stream {} for {} stalled for {} ms, cancelling", walkId, routerIP,
+                                    streamStallTimeoutMs);
+                            cancelled.set(true);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancelled.set(true);
+                }
+                return false;
+            }, streamExecutor);
+        } catch (RuntimeException e) {
+            activeStreams.remove(walkId);
+            streamExecutor.shutdownNow();
+            throw e;
+        }
 
         try {
-            CommunityTarget<UdpAddress> target = new CommunityTarget<>();
-            target.setCommunity(new OctetString("public"));
-            target.setAddress(new UdpAddress(ip + "/161"));
-            target.setVersion(SnmpConstants.version2c);
-            target.setTimeout(3000);
+            while (!cancelled.get() && (!walk.isDone() || !queue.isEmpty())) {
+                VariableBinding vb = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (vb == null) {
+                    out.flush();
+                    continue;
+                }
+                writeLine(out, Map.of("oid", vb.getOid().toString(), "value", vb.getVariable().toString()));
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+            }
+
+            if (!cancelled.get()) {
+                writeLine(out, Map.of("done", true, "stats", walk.join()));
+            }
+            out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // İstemci koptuysa veya iptal edildiyse SNMP yürüyüşü de durur
+            cancelled.set(true);
+            activeStreams.remove(walkId);
+            streamExecutor.shutdownNow();
+        }
+    }
 
-            OID currentOid = new OID(startOid);
+    /**
+     * Devam eden bir stream yürüyüşünü iptal eder.
+     */
+    public boolean cancelStream(String walkId) {
+        AtomicBoolean cancelled = activeStreams.get(walkId);
+        if (cancelled == null) {
+            return false;
+        }
+        cancelled.set(true);
+        return true;
+    }
+
+    private ExecutorService newWalkExecutor(String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void writeLine(OutputStream out, Object line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+    }
+
+    public OidWalkStats getLastWalkStats(String routerIP) {
+        return lastWalkStats.get(deviceInventoryService.resolve(routerIP).getIp());
+    }
 
+    /**
+     * Adlandırılmış alt ağaçlar ve DISCOVERY_ROOT altında bunların arasında
+     * kalan aralıklar. Aralıklar birlikte kökün tamamını örtüşmeden kapsar.
+     */
+    static List<WalkRange> walkRanges() {
+        OID discoveryRoot = new OID(MetricsOidConstants.DISCOVERY_ROOT);
+        List<Map.Entry<String, OID>> subtrees = new ArrayList<>();
+        MetricsOidConstants.DISCOVERY_SUBTREES.forEach((name, oid) -> subtrees.add(Map.entry(name, new OID(oid))));
+        subtrees.sort(Map.Entry.comparingByValue());
+
+        List<WalkRange> ranges = new ArrayList<>();
+        OID gapStart = discoveryRoot;
+        for (Map.Entry<String, OID> subtree : subtrees) {
+            OID root = subtree.getValue();
+            if (gapStart.compareTo(root) < 0) {
+                ranges.add(new WalkRange("other:" + gapStart, discoveryRoot, gapStart, root));
+            }
+            ranges.add(new WalkRange(subtree.getKey(), root, root, null));
+            gapStart = root.nextPeer();
+        }
+        ranges.add(new WalkRange("other:" + gapStart, discoveryRoot, gapStart, null));
+        return ranges;
+    }
+
+    /**
+     * start'tan sonraki OID'leri scope altında ve end'den (dahil değil) önce
+     * kaldıkları sürece yürür.
+     */
+    private SubtreeStats walkRange(Target<UdpAddress> target, WalkRange range, Predicate<VariableBinding> sink) {
+        long start = System.nanoTime();
+        long pdusSent = 0;
+        long oidCount = 0;
+
+        // SNMPv1 GETBULK desteklemez, GETNEXT'e düşülür
+        boolean bulk = target.getVersion() != SnmpConstants.version1;
+        OID currentOid = range.start();
+
+        try {
             // SNMP Walk Loop
-            while (true) {
-                PDU pdu = new PDU();
+            walk: while (true) {
+                PDU pdu = SnmpService.createPdu(target);
                 pdu.add(new VariableBinding(currentOid));
-                pdu.setType(PDU.GETNEXT);
+                if (bulk) {
+                    pdu.setType(PDU.GETBULK);
+                    pdu.setNonRepeaters(0);
+                    pdu.setMaxRepetitions(maxRepetitions);
+                } else {
+                    pdu.setType(PDU.GETNEXT);
+                }
 
-                ResponseEvent<UdpAddress> response = snmp.send(pdu, target);
+                ResponseEvent<UdpAddress> response = sessionManager.send(pdu, target);
+                pdusSent++;
 
-                if (response == null || response.getResponse() == null) {
+                if (response == null || response.getResponse() == null
+                        || response.getResponse().getErrorStatus() != 0) {
                     break; // Bitir
                 }
 
-                VariableBinding vb = response.getResponse().get(0);
+                for (VariableBinding vb : response.getResponse().getVariableBindings()) {
+                    // End of MIB / aralık sonu kontrolü
+                    if (vb.isException() || !range.contains(vb.getOid()) || vb.getOid().compareTo(currentOid) <= 0) {
+                        break walk;
+                    }
+
+                    oidCount++;
+                    if (!sink.test(vb)) {
+                        break walk;
+                    }
 
-                // End of MIB kontrolü
-                if (vb.getOid() == null || !vb.getOid().toString().startsWith(startOid)) {
-                    break;
+                    // Bir sonraki OID'ye geç
+                    currentOid = vb.getOid();
                 }
+            }
+        } catch (IOException e) {
+            logger.warn("OID walk of {} on {} failed: {}", range.name(), target.getAddress(), e.getMessage());
+        }
 
-                // OID ve değeri kaydet
-                results.put(vb.getOid().toString(), vb.getVariable().toString());
+        return new SubtreeStats(range.start().toString(), pdusSent, oidCount,
+                (System.nanoTime() - start) / 1_000_000);
+    }
 
-                // Bir sonraki OID'ye geç
-                currentOid = vb.getOid();
-            }
+    /**
+     * Yürünen bir OID aralığı: [start, end) ve scope altında; end null ise scope'un sonuna kadar.
+     */
+    record WalkRange(String name, OID scope, OID start, OID end) {
 
-        } finally {
-            snmp.close();
+        boolean contains(OID oid) {
+            return oid.startsWith(scope) && oid.compareTo(start) >= 0 && (end == null || oid.compareTo(end) < 0);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,264 @@
+package com.network_monitor.service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import com.network_monitor.model.Device;
+import com.network_monitor.model.EDeviceHealth;
+import com.network_monitor.model.SnmpData;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Cihaz/katman sorgularını kendi scheduler'ında zamanlar. Her cihaz-katman
+ * çiftinin ilk sorgusu rastgele kaydırılır ve her döngüye jitter eklenir;
+ * böylece cihazlar aynı anda sorgulanmaz. Yanıt vermeyen cihazların aralığı
+ * üstel olarak uzatılır, önceki sorgusu bitmemiş çiftin döngüsü atlanır.
+ * Devre kesicisi açık cihazlar ({@link DeviceHealthService}) sorgulanmaz.
+ */
+@Service
+public class PollScheduler {
+
+  private static final Logger logger = LoggerFactory.getLogger(PollScheduler.class);
+
+  // Kapalıyken bu node cihaz sorgulamaz (yalnızca API/WebSocket node'u)
+  @Value("${netmon.poller.enabled:true}")
+  private boolean pollerEnabled;
+
+  // Aynı anda yanıt beklenen en fazla cihaz-katman sorgusu
+  @Value("${netmon.poller.max-concurrent-polls:64}")
+  private int maxConcurrentPolls;
+
+  @Value("${netmon.poller.high-interval-ms:20000}")
+  private long highIntervalMs;
+
+  @Value("${netmon.poller.medium-interval-ms:3600000}")
+  private long mediumIntervalMs;
+
+  @Value("${netmon.poller.low-interval-ms:7200000}")
+  private long lowIntervalMs;
+
+  // Zamanlayıcının vadesi gelen sorguları kontrol etme sıklığı
+  @Value("${netmon.poller.tick-ms:1000}")
+  private long tickMs;
+
+  // İlk sorgular en fazla bu süreye yayılır (aralık daha kısaysa aralığa)
+  @Value("${netmon.poller.start-spread-ms:60000}")
+  private long startSpreadMs;
+
+  // Her döngüye eklenen rastgele sapma, aralığın oranı olarak (0.1 = ±%10)
+  @Value("${netmon.poller.jitter-ratio:0.1}")
+  private double jitterRatio;
+
+  // Hata veren cihaz için aralığın uzatılabileceği üst sınır
+  @Value("${netmon.poller.max-backoff-ms:600000}")
+  private long maxBackoffMs;
+
+  @Value("${netmon.poller.scheduler-threads:2}")
+  private int schedulerThreads;
+
+  @Autowired
+  private SnmpDataService snmpDataService;
+
+  @Autowired
+  private DeviceInventoryService deviceInventoryService;
+
+  @Autowired
+  private DeviceHealthService deviceHealthService;
+
+  @Autowired
+  private SnmpService snmpService;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  // "ip|katman" -> zamanlama durumu
+  private final Map<String, PollState> states = new ConcurrentHashMap<>();
+
+  private ThreadPoolTaskScheduler scheduler;
+  private Semaphore pollPermits;
+  private Counter skippedCounter;
+
+  @PostConstruct
+  public void init() {
+    pollPermits = new Semaphore(Math.max(1, maxConcurrentPolls));
+    skippedCounter = Counter.builder("snmp.poller.skipped")
+        .description("Poll cycles skipped because the previous poll was still running")
+        .register(meterRegistry);
+    Gauge.builder("snmp.poller.backoff", states,
+        s -> s.values().stream().filter(state -> state.failures > 0).count())
+        .description("Device tiers currently polled with a backed-off interval")
+        .register(meterRegistry);
+
+    if (!pollerEnabled) {
+      return;
+    }
+
+    scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setPoolSize(Math.max(1, schedulerThreads));
+    scheduler.setThreadNamePrefix("snmp-poll-");
+    scheduler.setDaemon(true);
+    scheduler.initialize();
+    scheduler.scheduleWithFixedDelay(this::tick, Duration.ofMillis(Math.max(100, tickMs)));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (scheduler != null) {
+      scheduler.shutdown();
+    }
+  }
+
+  /**
+   * Vadesi gelen cihaz-katman çiftlerini başlatır. Envanterden çıkan
+   * cihazların durumu temizlenir.
+   */
+  private void tick() {
+    try {
+      long now = System.currentTimeMillis();
+      Set<String> live = new HashSet<>();
+
+      for (Device device : deviceInventoryService.getActiveDevices()) {
+        // Erişilemeyen cihazın katmanları sorgulanmaz; süre dolunca tek bir
+        // deneme isteği gönderilir, cevap gelirse katmanlar kaldığı yerden devam eder
+        if (deviceHealthService.getState(device.getIp()) != EDeviceHealth.CLOSED) {
+          live.addAll(keysOf(device));
+          if (deviceHealthService.isProbeDue(device.getIp())) {
+            probe(device);
+          }
+          continue;
+        }
+
+        for (String tier : SnmpDataService.TIERS) {
+          if (!device.isTierEnabled(tier)) {
+            continue;
+          }
+
+          String key = device.getIp() + "|" + tier;
+          live.add(key);
+          long interval = device.getTierIntervalMs(tier, defaultIntervalMs(tier));
+          PollState state = states.computeIfAbsent(key, k -> new PollState(now + initialOffset(interval)));
+
+          if (now < state.nextDueMs) {
+            continue;
+          }
+          if (state.running.get()) {
+            // Önceki sorgu hâlâ sürüyor; bu döngü atlanır
+            state.nextDueMs = now + jittered(interval);
+            skippedCounter.increment();
+            continue;
+          }
+          // Eşzamanlılık sınırı doluysa bir sonraki tick'te tekrar denenir
+          if (!pollPermits.tryAcquire()) {
+            continue;
+          }
+          start(device, tier, state, interval, now);
+        }
+      }
+
+      states.keySet().retainAll(live);
+    } catch (Exception e) {
+      logger.error("Poll scheduler tick failed: {}", e.getMessage());
+    }
+  }
+
+  private void start(Device device, String tier, PollState state, long interval, long now) {
+    state.running.set(true);
+
+    CompletableFuture<List<SnmpData>> poll;
+    try {
+      poll = snmpDataService.pollDevice(device, tier);
+    } catch (RuntimeException e) {
+      poll = CompletableFuture.failedFuture(e);
+    }
+
+    poll.whenComplete((data, error) -> {
+      pollPermits.release();
+      if (error == null) {
+        if (state.failures > 0) {
+          logger.info("SNMP {} frequency poll recovered for {}", tier, device.getIp());
+        }
+        state.failures = 0;
+        state.nextDueMs = now + jittered(interval);
+      } else {
+        state.failures++;
+        long delay = backoff(interval, state.failures);
+        state.nextDueMs = System.currentTimeMillis() + delay;
+        logger.error("SNMP {} frequency poll failed for {} (attempt {}, next in {} ms): {}", tier,
+            device.getIp(), state.failures, delay, error.getMessage());
+      }
+      state.running.set(false);
+    });
+  }
+
+  private void probe(Device device) {
+    try {
+      snmpService.probeAsync(device);
+    } catch (RuntimeException e) {
+      logger.warn("SNMP probe could not start for {}: {}", device.getIp(), e.getMessage());
+    }
+  }
+
+  private static List<String> keysOf(Device device) {
+    return SnmpDataService.TIERS.stream().map(tier -> device.getIp() + "|" + tier).toList();
+  }
+
+  private long initialOffset(long interval) {
+    return ThreadLocalRandom.current().nextLong(Math.max(1, Math.min(interval, startSpreadMs)));
+  }
+
+  private long defaultIntervalMs(String tier) {
+    return switch (tier) {
+      case "high" -> highIntervalMs;
+      case "medium" -> mediumIntervalMs;
+      default -> lowIntervalMs;
+    };
+  }
+
+  /**
+   * Ardışık hata sayısına göre aralık 2, 4, 8... katına çıkar; üst sınır
+   * max-backoff-ms, ancak katmanın kendi aralığından kısa olmaz.
+   */
+  private long backoff(long interval, int failures) {
+    long multiplied = interval << Math.min(failures, 16);
+    long capped = multiplied > 0 ? Math.min(multiplied, maxBackoffMs) : maxBackoffMs;
+    return jittered(Math.max(interval, capped));
+  }
+
+  private long jittered(long interval) {
+    long spread = (long) (interval * jitterRatio);
+    if (spread <= 0) {
+      return interval;
+    }
+    return interval + ThreadLocalRandom.current().nextLong(-spread, spread + 1);
+  }
+
+  private static final class PollState {
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile long nextDueMs;
+    private volatile int failures;
+
+    PollState(long nextDueMs) {
+      this.nextDueMs = nextDueMs;
+    }
+  }
+}
@@ -0,0 +1,199 @@
+package com.network_monitor.service;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.stomp.ReactorNettyTcpStompClient;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.network_monitor.config.BrokerRelayProperties;
+import com.network_monitor.event.SnmpDataRelayedEvent;
+import com.network_monitor.event.SnmpDataSavedEvent;
+import com.network_monitor.model.SnmpData;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Broker relay modunda node'lar arası örnek dağıtımı. Poller çalıştıran node
+ * her olayı harici broker'daki tek bir topic'e bir kez yayınlar; her node bu
+ * topic'e abone olup gelen örnekleri {@link SnmpDataRelayedEvent} olarak
+ * kendi WebSocket oturumlarına dağıtır. Relay kapalıyken hiçbir şey yapmaz.
+ */
+@Service
+public class SampleRelayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SampleRelayService.class);
+
+    public static final String SAMPLES_TOPIC = "/topic/netmon.samples";
+
+    @Value("${netmon.ws.broker.relay.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    // STOMP heartbeat aralığı (gönderme ve alma); yanıt vermeyen broker bu sürede fark edilir
+    @Value("${netmon.ws.broker.relay.heartbeat-ms:10000}")
+    private long heartbeatMs;
+
+    @Autowired
+    private BrokerRelayProperties relayProperties;
+
+    @Autowired
+    private BroadcastService broadcastService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicBoolean reconnectScheduled = new AtomicBoolean();
+    private ReactorNettyTcpStompClient stompClient;
+    private ThreadPoolTaskScheduler relayScheduler;
+    private volatile StompSession session;
+    private volatile boolean running;
+
+    public record RelayedSamples(String frequencyType, List<SnmpData> data) {
+    }
+
+    public boolean isEnabled() {
+        return relayProperties.isEnabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        // Heartbeat ve yeniden bağlanma zamanlaması için
+        relayScheduler = new ThreadPoolTaskScheduler();
+        relayScheduler.setPoolSize(1);
+        relayScheduler.setThreadNamePrefix("sample-relay-");
+        relayScheduler.setDaemon(true);
+        relayScheduler.initialize();
+
+        stompClient = new ReactorNettyTcpStompClient(relayProperties.getHost(), relayProperties.getPort());
+        stompClient.setMessageConverter(new ByteArrayMessageConverter());
+        // Heartbeat alınamazsa bağlantı kopmuş sayılır ve handleTransportError ile yeniden bağlanılır
+        stompClient.setTaskScheduler(relayScheduler);
+        stompClient.setDefaultHeartbeat(new long[] { heartbeatMs, heartbeatMs });
+        running = true;
+        connect();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+        if (stompClient != null) {
+            stompClient.shutdown();
+        }
+        if (relayScheduler != null) {
+            relayScheduler.shutdown();
+        }
+    }
+
+    /**
+     * Yerel poller'ın ürettiği örnekleri tüm node'lar için broker'a yayınlar.
+     */
+    @EventListener
+    public void handleSnmpDataSaved(SnmpDataSavedEvent event) {
+        if (!isEnabled() || event.getSnmpData() == null) {
+            return;
+        }
+        try {
+            broadcastService.broadcast(SAMPLES_TOPIC, new RelayedSamples(event.getFrequencyType(),
+                    event.getSnmpData()));
+        } catch (Exception e) {
+            logger.error("Relaying {} samples failed: {}", event.getFrequencyType(), e.getMessage());
+        }
+    }
+
+    private void connect() {
+        if (!running) {
+            return;
+        }
+
+        StompHeaders headers = new StompHeaders();
+        headers.setLogin(relayProperties.getSystemLogin());
+        headers.setPasscode(relayProperties.getSystemPasscode());
+        headers.setHost(relayProperties.getVirtualHost());
+
+        stompClient.connectAsync(headers, new SamplesHandler()).whenComplete((connected, error) -> {
+            if (error != null) {
+                logger.warn("Connection to STOMP broker {}:{} failed: {}", relayProperties.getHost(),
+                        relayProperties.getPort(), error.getMessage());
+                scheduleReconnect();
+            }
+        });
+    }
+
+    private void scheduleReconnect() {
+        if (running && reconnectScheduled.compareAndSet(false, true)) {
+            relayScheduler.schedule(() -> {
+                reconnectScheduled.set(false);
+                connect();
+            }, Instant.now().plusMillis(reconnectDelayMs));
+        }
+    }
+
+    private class SamplesHandler extends StompSessionHandlerAdapter {
+
+        @Override
+        public void afterConnected(StompSession stompSession, StompHeaders connectedHeaders) {
+            session = stompSession;
+            stompSession.subscribe(SAMPLES_TOPIC, this);
+            logger.info("Subscribed to {} on STOMP broker {}:{}", SAMPLES_TOPIC, relayProperties.getHost(),
+                    relayProperties.getPort());
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            try {
+                RelayedSamples samples = objectMapper.readValue((byte[]) payload, RelayedSamples.class);
+                eventPublisher.publishEvent(new SnmpDataRelayedEvent(SampleRelayService.this, samples.data(),
+                        samples.frequencyType()));
+            } catch (IOException e) {
+                logger.warn("Unreadable relayed samples frame: {}", e.getMessage());
+            }
+        }
+
+        @Override
+        public void handleException(StompSession stompSession, StompCommand command, StompHeaders headers,
+                byte[] payload, Throwable exception) {
+            logger.warn("Relayed samples frame could not be handled: {}", exception.getMessage());
+        }
+
+        @Override
+        public void handleTransportError(StompSession stompSession, Throwable exception) {
+            if (!stompSession.isConnected()) {
+                logger.warn("Lost connection to STOMP broker: {}", exception.getMessage());
+                scheduleReconnect();
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.network_monitor.service;
+
+/**
+ * Agent isteği güvenlik yapılandırması nedeniyle reddetti (ör. bilinmeyen
+ * kullanıcı, yanlış parola, desteklenmeyen güvenlik seviyesi). Cihaz
+ * erişilebilir olsa da yeniden denemek sonucu değiştirmez; devre kesici
+ * bunu ne başarı ne hata olarak sayar.
+ */
+public class SnmpConfigurationException extends RuntimeException {
+
+    public SnmpConfigurationException(String message) {
+        super(message);
+    }
+}
@@ -1,96 +1,184 @@
 package com.network_monitor.service;
 
-import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.snmp4j.smi.Counter32;
+import org.snmp4j.smi.Counter64;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.Variable;
+import org.snmp4j.smi.VariableBinding;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.network_monitor.config.MetricsOidConstants;
 import com.network_monitor.event.SnmpDataSavedEvent;
+import com.network_monitor.model.Device;
 import com.network_monitor.model.SnmpData;
-import com.network_monitor.repository.SnmpDataRepository;
+import com.network_monitor.service.InterfaceTableService.InterfaceCounter;
 
 @Service
 public class SnmpDataService {
 
-  // private static final Logger logger =
-  // LoggerFactory.getLogger(SnmpDataService.class);
-  private static final String targetIP = "192.168.1.1";
+  public static final List<String> TIERS = List.of("high", "medium", "low");
+
+  private static final Logger logger = LoggerFactory.getLogger(SnmpDataService.class);
   private static final Map<String, String> highMetrics = MetricsOidConstants.HIGH_FREQUENCY_METRICS;
   private static final Map<String, String> mediumMetrics = MetricsOidConstants.MEDIUM_FREQUENCY_METRICS;
   private static final Map<String, String> lowMetrics = MetricsOidConstants.LOW_FREQUENCY_METRICS;
 
-  @Autowired
-  private SnmpDataRepository snmpDataRepository;
-
   @Autowired
   private ApplicationEventPublisher eventPublisher;
 
   @Autowired
   private SnmpService snmpService;
 
-  public void processBatch() {
-    fetchHighMetrics();
-    fetchMediumMetrics();
-    fetchLowMetrics();
-  }
+  @Autowired
+  private SnmpDataWriter snmpDataWriter;
+
+  @Autowired
+  private CounterRateEngine counterRateEngine;
 
-  private List<SnmpData> fetchMetrics(Map<String, String> metrics, String level) {
-    List<SnmpData> dataList = new ArrayList<>();
-    metrics.forEach((metricName, oid) -> {
-      try {
-        SnmpData data = createAndSaveSnmpData(metricName, oid, level);
+  @Autowired
+  private InterfaceTableService interfaceTableService;
+
+  /**
+   * Katmandaki tüm OID'leri bloklamadan sorgular; future, yanıtlar geldiğinde
+   * SnmpData listesi ile tamamlanır. scheduled false ise (zorunlu yenileme)
+   * sayaç oranı durumu güncellenmez, son poll'un oranı kullanılır.
+   */
+  private CompletableFuture<List<SnmpData>> fetchMetricsAsync(Device device, Map<String, String> metrics,
+      String level, boolean scheduled) {
+    List<String> metricNames = new ArrayList<>(metrics.keySet());
+    List<OID> oids = new ArrayList<>(metricNames.size());
+    for (String metricName : metricNames) {
+      oids.add(new OID(metrics.get(metricName)));
+    }
+
+    // Tüm katman tek seferde (mümkünse tek PDU ile) sorgulanır; yüksek
+    // frekans katmanında arayüz tabloları da aynı anda yürünür
+    CompletableFuture<List<VariableBinding>> scalars = snmpService.getOIDValuesAsync(device, oids);
+    CompletableFuture<List<InterfaceCounter>> interfaces = "high".equals(level)
+        ? interfaceTableService.pollAsync(device).exceptionally(error -> {
+          logger.warn("Interface table poll failed for {}: {}", device.getIp(), error.getMessage());
+          return List.of();
+        })
+        : CompletableFuture.completedFuture(List.of());
+
+    return scalars.thenCombine(interfaces, (values, counters) -> {
+      long now = System.currentTimeMillis();
+
+      // Önce uptime işlenir ki yeniden başlama aynı PDU'daki sayaçlara yansısın
+      int uptimeIndex = metricNames.indexOf("system_uptime");
+      if (scheduled && uptimeIndex >= 0 && values.get(uptimeIndex).getVariable() instanceof TimeTicks uptime) {
+        counterRateEngine.observeUptime(device.getIp(), uptime.toLong());
+      }
+
+      List<SnmpData> dataList = new ArrayList<>(metricNames.size() + counters.size());
+      for (int i = 0; i < metricNames.size(); i++) {
+        String metricName = metricNames.get(i);
+        Variable variable = values.get(i).getVariable();
+        SnmpData data = createSnmpData(device, metricName, metrics.get(metricName), variable, level);
+        applyRate(data, variable, now, scheduled);
+        dataList.add(data);
+      }
+      for (InterfaceCounter counter : counters) {
+        SnmpData data = createSnmpData(device, counter.metricName(), counter.oid(), counter.variable(), level);
+        data.setIfIndex(counter.ifIndex());
+        applyRate(data, counter.variable(), now, scheduled);
         dataList.add(data);
-      } catch (IOException e) {
-        e.printStackTrace();
       }
+      return dataList;
     });
-    return dataList;
   }
 
-  @Scheduled(fixedRate = 20_000) // 20 saniye
-  private void fetchHighMetrics() {
-    List<SnmpData> data = fetchMetrics(highMetrics, "high");
-    eventPublisher.publishEvent(new SnmpDataSavedEvent(this, data, "high"));
+  /**
+   * Cihazın bir katmanını sorgular; yanıtlar geldiğinde veriler yazma
+   * kuyruğuna eklenir ve event yayınlanır. Zamanlama {@link PollScheduler}
+   * tarafından yapılır.
+   */
+  public CompletableFuture<List<SnmpData>> pollDevice(Device device, String level) {
+    return fetchMetricsAsync(device, metricsOf(level), level, true).thenApply(data -> {
+      snmpDataWriter.enqueue(data);
+      eventPublisher.publishEvent(new SnmpDataSavedEvent(this, data, level));
+      return data;
+    });
   }
 
-  @Scheduled(fixedRate = 3_600_000) // 1 saat
-  private void fetchMediumMetrics() {
-    List<SnmpData> data = fetchMetrics(mediumMetrics, "medium");
-    eventPublisher.publishEvent(new SnmpDataSavedEvent(this, data, "medium"));
+  private static Map<String, String> metricsOf(String level) {
+    return switch (level) {
+      case "high" -> highMetrics;
+      case "medium" -> mediumMetrics;
+      case "low" -> lowMetrics;
+      default -> throw new IllegalArgumentException("Unknown frequency tier: " + level);
+    };
   }
 
-  @Scheduled(fixedRate = 7_200_000) // 2 saat
-  private void fetchLowMetrics() {
-    List<SnmpData> data = fetchMetrics(lowMetrics, "low");
-    eventPublisher.publishEvent(new SnmpDataSavedEvent(this, data, "low"));
+  /**
+   * Cihazın üç katmanını paralel sorgular; veriler kaydedilmez, event
+   * yayınlanmaz ve sayaç oranı durumu değişmez.
+   */
+  public CompletableFuture<List<SnmpData>> fetchAllMetricsAsync(Device device) {
+    CompletableFuture<List<SnmpData>> high = fetchMetricsAsync(device, highMetrics, "high", false);
+    CompletableFuture<List<SnmpData>> medium = fetchMetricsAsync(device, mediumMetrics, "medium", false);
+    CompletableFuture<List<SnmpData>> low = fetchMetricsAsync(device, lowMetrics, "low", false);
+
+    return CompletableFuture.allOf(high, medium, low).thenApply(ignored -> {
+      List<SnmpData> allData = new ArrayList<>();
+      allData.addAll(high.join());
+      allData.addAll(medium.join());
+      allData.addAll(low.join());
+      return allData;
+    });
   }
 
-  public List<SnmpData> fetchAllMetrics() {
-    List<SnmpData> allData = new ArrayList<>();
-    allData.addAll(fetchMetrics(highMetrics, "high"));
-    allData.addAll(fetchMetrics(mediumMetrics, "medium"));
-    allData.addAll(fetchMetrics(lowMetrics, "low"));
-
-    return allData;
+  /**
+   * Sayaç metriklerine saniye başına oranı ekler; okunabilir değer ham sayaç
+   * yerine oranı gösterir. Zamanlanmamış okumalarda son poll'un oranı
+   * kullanılır.
+   */
+  private void applyRate(SnmpData data, Variable variable, long timestampMs, boolean scheduled) {
+    boolean counter64 = variable instanceof Counter64;
+    if (!counter64 && !(variable instanceof Counter32)) {
+      return;
+    }
+
+    double rate = scheduled
+        ? counterRateEngine.rate(data.getDeviceIp(), data.getOid(), variable.toLong(), counter64, timestampMs)
+        : counterRateEngine.lastRate(data.getDeviceIp(), data.getOid());
+    if (Double.isNaN(rate)) {
+      return;
+    }
+
+    String unit = snmpService.toRateUnit(data.getMetricType());
+    if ("bps".equals(unit)) {
+      rate *= 8;
+    }
+    data.setRate(rate);
+    data.setRateUnit(unit);
+    data.setReadableValue(snmpService.toReadableRate(rate, unit));
   }
 
-  private SnmpData createAndSaveSnmpData(String metricName, String oid, String frequencyType) throws IOException {
-    String value = snmpService.getOIDValue(targetIP, oid);
+  private SnmpData createSnmpData(Device device, String metricName, String oid, Variable variable,
+      String frequencyType) {
+    String value = variable.toString();
 
     SnmpData snmpData = new SnmpData();
-    snmpData.setDeviceIp(targetIP);
+    snmpData.setDeviceIp(device.getIp());
     snmpData.setOid(oid);
     snmpData.setValue(value);
+    snmpData.setNumericValue(snmpService.toNumericValue(variable));
     snmpData.setReadableValue(snmpService.toReadableValue(metricName, value));
     snmpData.setMetricType(metricName);
     snmpData.setFrequencyType(frequencyType);
-    // snmpDataRepository.save(snmpData);
+    snmpData.setTimestamp(LocalDateTime.now());
 
     return snmpData;
   }
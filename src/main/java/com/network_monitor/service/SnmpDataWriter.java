@@ -0,0 +1,280 @@
+package com.network_monitor.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.network_monitor.model.SnmpData;
+import com.network_monitor.model.SnmpMetricBucket;
+import com.network_monitor.model.SnmpMetricBucket.Sample;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * SnmpData için write-behind tampon. Poller'lar kayıtları sınırlı bir kuyruğa
+ * bırakır ve hiçbir zaman veritabanını beklemez; ayrı bir thread kuyruğu
+ * boyut veya süre eşiğine ulaşıldığında boşaltır. Örnekler cihaz + metrik +
+ * arayüz + zaman penceresi başına tek bir {@link SnmpMetricBucket} dokümanına toplu
+ * upsert ile eklenir.
+ */
+@Component
+public class SnmpDataWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnmpDataWriter.class);
+
+    // 2^53: bu değerden büyük tam sayılar double'da yuvarlanabilir
+    private static final double MAX_EXACT_DOUBLE = 9007199254740992.0;
+
+    @Value("${netmon.persistence.enabled:true}")
+    private boolean enabled;
+
+    @Value("${netmon.persistence.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${netmon.persistence.batch-size:500}")
+    private int batchSize;
+
+    @Value("${netmon.persistence.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    // Kuyruk doluyken: drop-oldest (en eski kaydı at) veya drop-newest (yeni kaydı at)
+    @Value("${netmon.persistence.overflow-policy:drop-oldest}")
+    private String overflowPolicy;
+
+    // Bir bucket dokümanının kapsadığı zaman penceresi
+    @Value("${netmon.persistence.bucket-window-ms:3600000}")
+    private long bucketWindowMs;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<SnmpData> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private Timer flushTimer;
+    private Counter writtenCounter;
+    private Counter droppedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        Gauge.builder("snmp.persistence.queue.depth", queue, BlockingQueue::size)
+                .description("SnmpData samples waiting to be written")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("snmp.persistence.flush")
+                .description("Bulk write latency of SnmpData batches")
+                .register(meterRegistry);
+        writtenCounter = Counter.builder("snmp.persistence.written").register(meterRegistry);
+        droppedCounter = Counter.builder("snmp.persistence.dropped").register(meterRegistry);
+        failedCounter = Counter.builder("snmp.persistence.failed").register(meterRegistry);
+
+        if (!enabled) {
+            logger.info("SnmpData persistence is disabled");
+            return;
+        }
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "snmp-data-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            // Kuyrukta kalanlar yazılabilsin diye bir süre beklenir
+            flusher.join(Math.max(5_000, flushIntervalMs * 2));
+        }
+    }
+
+    /**
+     * Kayıtları yazma kuyruğuna bırakır; çağıran thread hiçbir zaman bloklanmaz.
+     */
+    public void enqueue(List<SnmpData> data) {
+        if (!enabled || data == null) {
+            return;
+        }
+
+        for (SnmpData snmpData : data) {
+            if (queue.offer(snmpData)) {
+                continue;
+            }
+
+            if ("drop-newest".equals(overflowPolicy)) {
+                droppedCounter.increment();
+                continue;
+            }
+
+            // drop-oldest: yer açılana kadar en eski kaydı at
+            while (!queue.offer(snmpData)) {
+                if (queue.poll() != null) {
+                    droppedCounter.increment();
+                }
+            }
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void runFlusher() {
+        List<SnmpData> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                SnmpData first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Batch dolana veya süre eşiği geçene kadar topla
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    SnmpData next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<SnmpData> batch) {
+        long start = System.nanoTime();
+        try {
+            // Aynı bucket'a düşen örnekler tek upsert'te birleştirilir
+            Map<String, List<SnmpData>> buckets = new LinkedHashMap<>();
+            for (SnmpData snmpData : batch) {
+                String key = snmpData.getDeviceIp() + '|' + snmpData.getMetricType() + '|'
+                        + snmpData.getIfIndex() + '|' + bucketStart(snmpData).toEpochMilli();
+                buckets.computeIfAbsent(key, k -> new ArrayList<>()).add(snmpData);
+            }
+
+            BulkOperations operations = mongoTemplate.bulkOps(BulkMode.UNORDERED, SnmpMetricBucket.class);
+            for (List<SnmpData> samples : buckets.values()) {
+                SnmpData first = samples.get(0);
+                Query query = Query.query(Criteria.where("deviceIp").is(first.getDeviceIp())
+                        .and("metricType").is(first.getMetricType())
+                        .and("ifIndex").is(first.getIfIndex())
+                        .and("bucketStart").is(bucketStart(first)));
+                operations.upsert(query, toBucketUpdate(samples));
+            }
+            operations.execute();
+
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            logger.error("SnmpData bulk write of {} samples failed: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Update toBucketUpdate(List<SnmpData> samples) {
+        Update update = new Update().setOnInsert("oid", samples.get(0).getOid());
+
+        List<Sample> numericSamples = new ArrayList<>(samples.size());
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        double sum = 0;
+        String text = null;
+
+        for (SnmpData snmpData : samples) {
+            Double value = snmpData.getNumericValue();
+            if (value == null) {
+                text = snmpData.getValue();
+                continue;
+            }
+            numericSamples.add(new Sample(timestampOf(snmpData).toEpochMilli(), value, snmpData.getRate(),
+                    exactValueOf(snmpData)));
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+        }
+
+        update.inc("count", samples.size());
+        if (!numericSamples.isEmpty()) {
+            update.push("samples").each(numericSamples.toArray());
+            update.min("min", min);
+            update.max("max", max);
+            update.inc("sum", sum);
+        }
+        if (text != null) {
+            update.set("text", text);
+        }
+        return update;
+    }
+
+    /**
+     * double'ın tam sayıları kayıpsız tutabildiği aralığı (2^53) aşan
+     * değerlerin ham metinden kesin hali; diğerleri için null.
+     */
+    private static BigDecimal exactValueOf(SnmpData snmpData) {
+        if (Math.abs(snmpData.getNumericValue()) < MAX_EXACT_DOUBLE || snmpData.getValue() == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(snmpData.getValue().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Instant bucketStart(SnmpData snmpData) {
+        long millis = timestampOf(snmpData).toEpochMilli();
+        return Instant.ofEpochMilli(millis - Math.floorMod(millis, bucketWindowMs));
+    }
+
+    private static Instant timestampOf(SnmpData snmpData) {
+        LocalDateTime timestamp = snmpData.getTimestamp() != null ? snmpData.getTimestamp()
+                : snmpData.getCreatedAt();
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
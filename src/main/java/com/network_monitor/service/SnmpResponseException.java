@@ -0,0 +1,12 @@
+package com.network_monitor.service;
+
+/**
+ * Agent yanıt verdi ancak hata durumu (errorStatus) veya REPORT döndü.
+ * Cihaz erişilebilirdir; devre kesici bunu başarı olarak sayar.
+ */
+public class SnmpResponseException extends RuntimeException {
+
+    public SnmpResponseException(String message) {
+        super(message);
+    }
+}
@@ -1,79 +1,480 @@
 package com.network_monitor.service;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
+import org.snmp4j.AbstractTarget;
 import org.snmp4j.CommunityTarget;
 import org.snmp4j.PDU;
-import org.snmp4j.Snmp;
+import org.snmp4j.ScopedPDU;
+import org.snmp4j.Target;
+import org.snmp4j.UserTarget;
 import org.snmp4j.event.ResponseEvent;
 import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.Counter64;
+import org.snmp4j.smi.Integer32;
 import org.snmp4j.smi.OID;
 import org.snmp4j.smi.OctetString;
 import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.UnsignedInteger32;
+import org.snmp4j.smi.Variable;
 import org.snmp4j.smi.VariableBinding;
-import org.snmp4j.transport.DefaultUdpTransportMapping;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.network_monitor.model.Device;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
 @Service
 public class SnmpService {
 
-    private static final int DEFAULT_PORT = 161;
-    private static final int DEFAULT_TIMEOUT = 5000;
-    private static final int DEFAULT_RETRIES = 1;
     private static final String DEFAULT_COMMUNITY = "public";
 
+    // Tek bir GET PDU içine konulacak en fazla VariableBinding sayısı
+    @Value("${netmon.snmp.max-varbinds-per-pdu:20}")
+    private int maxVarbindsPerPdu;
+
+    @Autowired
+    private SnmpSessionManager sessionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DeviceHealthService deviceHealthService;
+
+    // flight key -> yanıt beklenen GET; eş zamanlı aynı okumalar bunu paylaşır
+    private final Map<String, CompletableFuture<List<VariableBinding>>> inFlightReads = new ConcurrentHashMap<>();
+    private Counter coalescedCounter;
+
+    @PostConstruct
+    public void init() {
+        coalescedCounter = Counter.builder("snmp.requests.coalesced")
+                .description("SNMP GETs served by an identical request already in flight")
+                .register(meterRegistry);
+    }
+
     public String getOIDValue(String targetIP, String oidString) throws IOException {
         return getOIDValue(targetIP, DEFAULT_COMMUNITY, oidString);
     }
 
     public String getOIDValue(String targetIP, String community, String oidString)
             throws IOException {
+        List<VariableBinding> result = getOIDValues(targetIP, community, List.of(new OID(oidString)));
+        return result.get(0).getVariable().toString();
+    }
+
+    public List<VariableBinding> getOIDValues(String targetIP, List<OID> oids) throws IOException {
+        return getOIDValues(targetIP, DEFAULT_COMMUNITY, oids);
+    }
+
+    /**
+     * Birden fazla OID'yi mümkün olan en az GET PDU ile okur. Yanıttaki
+     * VariableBinding'ler istek sırasıyla döner.
+     */
+    public List<VariableBinding> getOIDValues(String targetIP, String community, List<OID> oids)
+            throws IOException {
+        return await(getOIDValuesAsync(targetIP, community, oids));
+    }
 
-        // Transport mapping oluştur
-        DefaultUdpTransportMapping transport = new DefaultUdpTransportMapping();
+    public List<VariableBinding> getOIDValues(Device device, List<OID> oids) throws IOException {
+        return await(getOIDValuesAsync(device, oids));
+    }
 
-        // SNMP objesi oluştur
-        Snmp snmp = new Snmp(transport);
-        transport.listen();
+    public CompletableFuture<List<VariableBinding>> getOIDValuesAsync(String targetIP, List<OID> oids) {
+        return getOIDValuesAsync(targetIP, DEFAULT_COMMUNITY, oids);
+    }
 
+    public CompletableFuture<List<VariableBinding>> getOIDValuesAsync(String targetIP, String community,
+            List<OID> oids) {
+        Device device = new Device(targetIP);
+        device.setCommunity(community);
+        return getOIDValuesAsync(device, oids);
+    }
+
+    /**
+     * {@link #getOIDValues(Device, List)} metodunun bloklamayan hali. Tüm
+     * PDU'lar aynı anda gönderilir; future son yanıt geldiğinde tamamlanır.
+     * Aynı target, community ve OID listesi için yanıt beklenen bir istek
+     * varsa yeni PDU gönderilmez, çağıran aynı sonucu paylaşır.
+     */
+    public CompletableFuture<List<VariableBinding>> getOIDValuesAsync(Device device, List<OID> oids) {
+        String key = flightKey(device, oids);
+        CompletableFuture<List<VariableBinding>> created = new CompletableFuture<>();
+        CompletableFuture<List<VariableBinding>> existing = inFlightReads.putIfAbsent(key, created);
+        if (existing != null) {
+            coalescedCounter.increment();
+            return existing.thenApply(ArrayList::new);
+        }
+
+        CompletableFuture<List<VariableBinding>> request;
         try {
-            // Target ayarları
-            CommunityTarget<UdpAddress> target = new CommunityTarget<>();
-            target.setCommunity(new OctetString(community));
-            target.setAddress(new UdpAddress(targetIP + "/" + DEFAULT_PORT));
-            target.setVersion(SnmpConstants.version2c);
-            target.setTimeout(DEFAULT_TIMEOUT); // 5 saniye timeout
-            target.setRetries(DEFAULT_RETRIES);
-
-            // PDU oluştur (Protocol Data Unit)
-            PDU pdu = new PDU();
-            pdu.add(new VariableBinding(new OID(oidString)));
-            pdu.setType(PDU.GET);
-
-            // İsteği gönder
-            ResponseEvent<UdpAddress> response = snmp.send(pdu, target);
+            request = guarded(device, () -> sendGetAsync(device, oids));
+        } catch (RuntimeException e) {
+            request = CompletableFuture.failedFuture(e);
+        }
+        request.whenComplete((result, error) -> {
+            inFlightReads.remove(key, created);
+            if (error != null) {
+                created.completeExceptionally(error);
+            } else {
+                created.complete(result);
+            }
+        });
+        return created.thenApply(ArrayList::new);
+    }
+
+    private CompletableFuture<List<VariableBinding>> sendGetAsync(Device device, List<OID> oids) {
+        return resolveTargetAsync(device).thenCompose(target -> {
+            List<CompletableFuture<List<VariableBinding>>> batches = new ArrayList<>();
+            int batchSize = Math.max(1, maxVarbindsPerPdu);
+            for (int from = 0; from < oids.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, oids.size());
+                batches.add(getBatchAsync(target, oids.subList(from, to)));
+            }
+            return joinInOrder(batches);
+        });
+    }
 
+    /**
+     * Aynı agent'a aynı kimlikle giden aynı OID listesini tanımlar.
+     */
+    private static String flightKey(Device device, List<OID> oids) {
+        StringBuilder key = new StringBuilder(32 + oids.size() * 24)
+                .append(device.getIp()).append('/').append(device.getPort())
+                .append('|').append(device.getVersion())
+                .append('|').append(isV3(device) ? device.getSecurityName() : device.getCommunity());
+        for (OID oid : oids) {
+            key.append('|').append(oid);
+        }
+        return key.toString();
+    }
+
+    private CompletableFuture<List<VariableBinding>> getBatchAsync(Target<UdpAddress> target, List<OID> oids) {
+
+        // PDU oluştur (Protocol Data Unit)
+        PDU pdu = createPdu(target);
+        for (OID oid : oids) {
+            pdu.add(new VariableBinding(oid));
+        }
+        pdu.setType(PDU.GET);
+
+        // İsteği paylaşımlı oturum üzerinden gönder
+        return sessionManager.sendAsync(pdu, target).thenCompose(response -> {
             // Yanıtı kontrol et
-            if (response != null && response.getResponse() != null) {
-                PDU responsePDU = response.getResponse();
-
-                if (responsePDU.getErrorStatus() == 0) {
-                    // Başarılı yanıt
-                    VariableBinding vb = responsePDU.get(0);
-                    return vb.getVariable().toString();
-                } else {
-                    throw new RuntimeException("SNMP hatası: " +
-                            responsePDU.getErrorStatusText() +
-                            " (Error Index: " + responsePDU.getErrorIndex() + ")");
-                }
+            PDU responsePDU = responseOf(target, response);
+
+            // Agent yanıtı tek pakete sığdıramadıysa isteği ikiye böl
+            if (responsePDU.getErrorStatus() == PDU.tooBig && oids.size() > 1) {
+                int half = oids.size() / 2;
+                return joinInOrder(List.of(
+                        getBatchAsync(target, oids.subList(0, half)),
+                        getBatchAsync(target, oids.subList(half, oids.size()))));
+            }
+
+            if (responsePDU.getErrorStatus() != 0) {
+                throw new SnmpResponseException("SNMP hatası: " +
+                        responsePDU.getErrorStatusText() +
+                        " (Error Index: " + responsePDU.getErrorIndex() + ")");
+            }
+
+            // Başarılı yanıt
+            return CompletableFuture.completedFuture(new ArrayList<>(responsePDU.getVariableBindings()));
+        });
+    }
+
+    /**
+     * Tablo sütunlarını GETBULK ile (v1'de GETNEXT) birlikte yürür. Her yanıtta
+     * sütun başına maxRepetitions satır gelir; agent yanıtı kısaltırsa
+     * kalınan yerden devam edilir. Sonuç satır indeksine (ör. ifIndex) göre
+     * sıralıdır ve dizideki sıra sütun sırasıdır; satırda olmayan sütun null.
+     */
+    public CompletableFuture<SortedMap<OID, Variable[]>> getTableAsync(Device device, List<OID> columns,
+            int maxRepetitions) {
+        return guarded(device, () -> resolveTargetAsync(device).thenCompose(target -> {
+            OID[] cursors = columns.toArray(new OID[0]);
+            return walkColumnsAsync(target, columns, cursors, Math.max(1, maxRepetitions), new TreeMap<>());
+        }));
+    }
+
+    /**
+     * Cihazın devre kesicisini kontrol eder; OPEN cihaz için istek
+     * gönderilmeden hata döner. Yanıt gelmeyen veya transport hatasıyla
+     * (ör. no route to host) gönderilemeyen istekler hata, agent'ın hata
+     * durumuyla da olsa yanıt verdiği istekler başarı olarak kaydedilir.
+     * Erişilebilirlikle ilgisi olmayan hatalarda (ör. geçersiz yapılandırma,
+     * SNMPv3 kimlik bilgisi hatası) sonuç kaydedilmez, varsa deneme hakkı geri
+     * verilir.
+     */
+    private <T> CompletableFuture<T> guarded(Device device, Supplier<CompletableFuture<T>> request) {
+        String deviceIp = device.getIp();
+        if (!deviceHealthService.tryAcquire(deviceIp)) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("Cihaz erişilemez durumda (circuit open): " + deviceIp));
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = request.get();
+        } catch (RuntimeException e) {
+            deviceHealthService.releaseTrial(deviceIp);
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> {
+            Throwable cause = error;
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause == null || cause instanceof SnmpResponseException) {
+                deviceHealthService.recordSuccess(deviceIp);
+            } else if (cause instanceof SnmpTimeoutException || cause instanceof IOException) {
+                deviceHealthService.recordFailure(deviceIp);
             } else {
-                throw new RuntimeException("SNMP yanıtı alınamadı (timeout veya bağlantı hatası)");
+                deviceHealthService.releaseTrial(deviceIp);
+            }
+        });
+    }
+
+    /**
+     * OPEN cihaza tek bir ucuz deneme isteği (sysUpTime GET) gönderir; sonuç
+     * devre kesiciye kaydedilir.
+     */
+    public CompletableFuture<List<VariableBinding>> probeAsync(Device device) {
+        return getOIDValuesAsync(device, List.of(SnmpConstants.sysUpTime));
+    }
+
+    private CompletableFuture<SortedMap<OID, Variable[]>> walkColumnsAsync(Target<UdpAddress> target,
+            List<OID> columns, OID[] cursors, int maxRepetitions, SortedMap<OID, Variable[]> rows) {
+        List<Integer> active = new ArrayList<>(columns.size());
+        for (int i = 0; i < cursors.length; i++) {
+            if (cursors[i] != null) {
+                active.add(i);
+            }
+        }
+        if (active.isEmpty()) {
+            return CompletableFuture.completedFuture(rows);
+        }
+
+        boolean bulk = target.getVersion() != SnmpConstants.version1;
+        PDU pdu = createPdu(target);
+        for (int column : active) {
+            pdu.add(new VariableBinding(cursors[column]));
+        }
+        if (bulk) {
+            pdu.setType(PDU.GETBULK);
+            pdu.setMaxRepetitions(maxRepetitions);
+            pdu.setNonRepeaters(0);
+        } else {
+            pdu.setType(PDU.GETNEXT);
+        }
+
+        return sessionManager.sendAsync(pdu, target).thenCompose(response -> {
+            PDU responsePDU = responseOf(target, response);
+            if (responsePDU.getErrorStatus() == PDU.tooBig && maxRepetitions > 1) {
+                return walkColumnsAsync(target, columns, cursors, maxRepetitions / 2, rows);
+            }
+            if (responsePDU.getErrorStatus() == PDU.noSuchName && !bulk) {
+                // v1'de tablonun sonu noSuchName ile bildirilir
+                int failed = responsePDU.getErrorIndex() - 1;
+                if (failed < 0 || failed >= active.size()) {
+                    return CompletableFuture.completedFuture(rows);
+                }
+                cursors[active.get(failed)] = null;
+                return walkColumnsAsync(target, columns, cursors, maxRepetitions, rows);
+            }
+            if (responsePDU.getErrorStatus() != 0) {
+                throw new SnmpResponseException("SNMP hatası: " + responsePDU.getErrorStatusText() +
+                        " (Error Index: " + responsePDU.getErrorIndex() + ")");
+            }
+
+            List<? extends VariableBinding> vbs = responsePDU.getVariableBindings();
+            if (vbs.isEmpty()) {
+                return CompletableFuture.completedFuture(rows);
+            }
+
+            // Yanıt sütunlar arasında satır satır sıralıdır: r. tekrarın c. sütunu r * n + c
+            for (int i = 0; i < vbs.size(); i++) {
+                int column = active.get(i % active.size());
+                if (cursors[column] == null) {
+                    continue;
+                }
+
+                VariableBinding vb = vbs.get(i);
+                OID columnOid = columns.get(column);
+                OID oid = vb.getOid();
+                if (vb.isException() || !oid.startsWith(columnOid) || oid.size() <= columnOid.size()
+                        || oid.compareTo(cursors[column]) <= 0) {
+                    cursors[column] = null;
+                    continue;
+                }
+
+                OID index = new OID(oid.getValue(), columnOid.size(), oid.size() - columnOid.size());
+                rows.computeIfAbsent(index, key -> new Variable[columns.size()])[column] = vb.getVariable();
+                cursors[column] = oid;
             }
+            return walkColumnsAsync(target, columns, cursors, maxRepetitions, rows);
+        });
+    }
+
+    private static CompletableFuture<List<VariableBinding>> joinInOrder(
+            List<CompletableFuture<List<VariableBinding>>> batches) {
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<VariableBinding> results = new ArrayList<>();
+            for (CompletableFuture<List<VariableBinding>> batch : batches) {
+                results.addAll(batch.join());
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Senkron API için future sonucunu bekler ve asıl hatayı geri fırlatır.
+     */
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Cihaz tanımından SNMP target oluşturur. SNMPv3 cihazlarda engine ID
+     * içermeyen bir UserTarget döner; istek göndermek için
+     * {@link #resolveTargetAsync(Device)} kullanılmalıdır.
+     */
+    public Target<UdpAddress> createTarget(Device device) {
+        // Target ayarları
+        AbstractTarget<UdpAddress> target;
+        if (isV3(device)) {
+            UserTarget<UdpAddress> userTarget = new UserTarget<>();
+            userTarget.setSecurityName(new OctetString(device.getSecurityName()));
+            userTarget.setSecurityLevel(sessionManager.securityLevelOf(device));
+            userTarget.setVersion(SnmpConstants.version3);
+            target = userTarget;
+        } else {
+            CommunityTarget<UdpAddress> communityTarget = new CommunityTarget<>();
+            communityTarget.setCommunity(new OctetString(
+                    device.getCommunity() != null ? device.getCommunity() : Device.DEFAULT_COMMUNITY));
+            communityTarget.setVersion("1".equals(device.getVersion()) ? SnmpConstants.version1
+                    : SnmpConstants.version2c);
+            target = communityTarget;
+        }
+        target.setAddress(new UdpAddress(device.getIp() + "/" + device.getPort()));
+        target.setTimeout(device.getTimeoutMs());
+        target.setRetries(device.getRetries());
+        return target;
+    }
 
-        } finally {
-            // Kaynakları temizle
-            snmp.close();
+    /**
+     * Gönderime hazır target. SNMPv3'te agent'ın engine ID'si (önbellekten
+     * veya bir kez keşfedilerek) target'a yazılır ve kullanıcının anahtarları
+     * o engine için önceden yerelleştirilir.
+     */
+    public CompletableFuture<Target<UdpAddress>> resolveTargetAsync(Device device) {
+        Target<UdpAddress> target = createTarget(device);
+        if (target instanceof UserTarget<UdpAddress> userTarget) {
+            return sessionManager.prepareUserTarget(userTarget, device);
+        }
+        return CompletableFuture.completedFuture(target);
+    }
+
+    /**
+     * Target sürümüne uygun boş PDU; SNMPv3 ScopedPDU gerektirir.
+     */
+    public static PDU createPdu(Target<?> target) {
+        return target.getVersion() == SnmpConstants.version3 ? new ScopedPDU() : new PDU();
+    }
+
+    private static boolean isV3(Device device) {
+        return "3".equals(device.getVersion());
+    }
+
+    /**
+     * Yanıt PDU'sunu döner. Yanıt yoksa timeout fırlatılır. REPORT'lardan
+     * yalnızca usmStatsUnknownEngineIDs (agent'ın engine ID'si değişti) engine
+     * önbelleğini temizler; diğerleri (bilinmeyen kullanıcı, yanlış digest,
+     * desteklenmeyen güvenlik seviyesi vb.) yapılandırma hatasıdır.
+     */
+    PDU responseOf(Target<UdpAddress> target, ResponseEvent<UdpAddress> response) {
+        if (response == null || response.getResponse() == null) {
+            throw new SnmpTimeoutException();
+        }
+
+        PDU responsePDU = response.getResponse();
+        if (responsePDU.getType() == PDU.REPORT) {
+            OID report = responsePDU.size() > 0 ? responsePDU.get(0).getOid() : null;
+            if (report != null && report.startsWith(SnmpConstants.usmStatsUnknownEngineIDs)) {
+                sessionManager.forgetEngine(target.getAddress());
+                throw new SnmpResponseException("SNMPv3 report: " + report);
+            }
+            throw new SnmpConfigurationException("SNMPv3 report (yapılandırma hatası): "
+                    + (report != null ? report : "unknown"));
+        }
+        return responsePDU;
+    }
+
+    /**
+     * Sayısal SNMP tiplerini double'a çevirir; sayısal olmayanlar için null.
+     */
+    public Double toNumericValue(Variable variable) {
+        if (variable instanceof Counter64) {
+            long raw = variable.toLong();
+            // Counter64 işaretsizdir
+            return raw >= 0 ? (double) raw : Double.parseDouble(Long.toUnsignedString(raw));
+        }
+        if (variable instanceof UnsignedInteger32 || variable instanceof Integer32) {
+            return (double) variable.toLong();
+        }
+        return null;
+    }
+
+    /**
+     * Sayaç metriğinin oran birimi: octet sayaçları bit/s'ye çevrilir.
+     */
+    public String toRateUnit(String oidKey) {
+        if (oidKey.endsWith("_octets")) {
+            return "bps";
+        }
+        if (oidKey.endsWith("_errors")) {
+            return "errors/s";
+        }
+        return "pps";
+    }
+
+    /**
+     * Oranı okunabilir hale çevirir (ör. "12.4 Mbps").
+     */
+    public String toReadableRate(double rate, String unit) {
+        if (!"bps".equals(unit)) {
+            return String.format(Locale.ROOT, "%.1f %s", rate, unit);
         }
+        if (rate < 1_000)
+            return String.format(Locale.ROOT, "%.0f bps", rate);
+        if (rate < 1_000_000)
+            return String.format(Locale.ROOT, "%.1f Kbps", rate / 1_000);
+        if (rate < 1_000_000_000)
+            return String.format(Locale.ROOT, "%.1f Mbps", rate / 1_000_000);
+        return String.format(Locale.ROOT, "%.2f Gbps", rate / 1_000_000_000);
     }
 
     /**
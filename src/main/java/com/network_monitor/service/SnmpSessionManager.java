@@ -0,0 +1,356 @@
+package com.network_monitor.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.snmp4j.MessageDispatcherImpl;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.Target;
+import org.snmp4j.UserTarget;
+import org.snmp4j.event.ResponseEvent;
+import org.snmp4j.event.ResponseListener;
+import org.snmp4j.mp.MPv1;
+import org.snmp4j.mp.MPv2c;
+import org.snmp4j.mp.MPv3;
+import org.snmp4j.security.AuthHMAC128SHA224;
+import org.snmp4j.security.AuthHMAC192SHA256;
+import org.snmp4j.security.AuthHMAC256SHA384;
+import org.snmp4j.security.AuthHMAC384SHA512;
+import org.snmp4j.security.AuthMD5;
+import org.snmp4j.security.AuthSHA;
+import org.snmp4j.security.Priv3DES;
+import org.snmp4j.security.PrivAES128;
+import org.snmp4j.security.PrivAES192;
+import org.snmp4j.security.PrivAES256;
+import org.snmp4j.security.PrivDES;
+import org.snmp4j.security.SecurityLevel;
+import org.snmp4j.security.SecurityProtocols;
+import org.snmp4j.security.USM;
+import org.snmp4j.security.UsmUser;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.transport.DefaultUdpTransportMapping;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.network_monitor.model.Device;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Uygulama boyunca açık kalan paylaşımlı SNMP oturumları.
+ *
+ * Her istek için yeni UDP soketi ve listener thread açmak yerine, başlangıçta
+ * küçük bir {@link Snmp} havuzu oluşturulur ve istekler round-robin dağıtılır.
+ *
+ * SNMPv3 için tüm oturumlar tek bir USM ve MPv3 paylaşır. Agent engine ID'leri
+ * adres başına bir kez keşfedilir, boots/time değerleri USM'in zaman
+ * tablosunda tutulur ve kullanıcı anahtarları engine başına bir kez
+ * yerelleştirilir; böylece v3 sorgusu v2c ile yaklaşık aynı maliyettedir.
+ */
+@Component
+public class SnmpSessionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnmpSessionManager.class);
+
+    @Value("${netmon.snmp.session-pool-size:1}")
+    private int poolSize;
+
+    @Value("${netmon.snmp.callback-threads:4}")
+    private int callbackThreads;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Snmp> sessions = new ArrayList<>();
+    private final AtomicInteger nextSession = new AtomicInteger();
+    private final AtomicInteger openSockets = new AtomicInteger();
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+    private Counter sessionsCreated;
+    private ExecutorService callbackExecutor;
+
+    private USM usm;
+    private MPv3 mpv3;
+    private ExecutorService discoveryExecutor;
+    private Counter localizationsCounter;
+
+    // "ip/port" -> agent'ın authoritative engine ID'si (keşif sürüyorsa tamamlanmamış future)
+    private final Map<String, CompletableFuture<OctetString>> engineIds = new ConcurrentHashMap<>();
+
+    // "engineId|securityName" -> yerelleştirilmiş kullanıcının kimlik bilgisi özeti
+    private final Map<String, Integer> localizedUsers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void start() throws IOException {
+        Gauge.builder("snmp.transport.sockets", openSockets, AtomicInteger::get)
+                .description("Open SNMP UDP transport sockets")
+                .register(meterRegistry);
+        Gauge.builder("snmp.requests.inflight", inFlightRequests, AtomicInteger::get)
+                .description("SNMP requests waiting for a response")
+                .register(meterRegistry);
+        sessionsCreated = Counter.builder("snmp.sessions.created")
+                .description("SNMP sessions created since startup")
+                .register(meterRegistry);
+        localizationsCounter = Counter.builder("snmp.usm.localizations")
+                .description("SNMPv3 user keys localized for an agent engine")
+                .register(meterRegistry);
+
+        // Yanıt işleme transport listener thread'inde değil bu havuzda yapılır
+        AtomicInteger threadCount = new AtomicInteger();
+        callbackExecutor = Executors.newFixedThreadPool(Math.max(1, callbackThreads), runnable -> {
+            Thread thread = new Thread(runnable, "snmp-callback-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Engine keşfi bloklayan bir istek olduğu için ayrı thread'lerde yapılır
+        AtomicInteger discoveryThreadCount = new AtomicInteger();
+        discoveryExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "snmp-engine-discovery-" + discoveryThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Eski cihazlar için MD5/SHA-1 ve 3DES de açıkça eklenir
+        SecurityProtocols securityProtocols = SecurityProtocols.getInstance().addDefaultProtocols();
+        securityProtocols.addAuthenticationProtocol(new AuthMD5());
+        securityProtocols.addAuthenticationProtocol(new AuthSHA());
+        securityProtocols.addPrivacyProtocol(new Priv3DES());
+        usm = new USM(securityProtocols, new OctetString(MPv3.createLocalEngineID()), 0);
+        mpv3 = new MPv3(usm);
+
+        for (int i = 0; i < Math.max(1, poolSize); i++) {
+            DefaultUdpTransportMapping transport = new DefaultUdpTransportMapping();
+            MessageDispatcherImpl dispatcher = new MessageDispatcherImpl();
+            dispatcher.addMessageProcessingModel(new MPv1());
+            dispatcher.addMessageProcessingModel(new MPv2c());
+            dispatcher.addMessageProcessingModel(mpv3);
+            Snmp snmp = new Snmp(dispatcher, transport);
+            snmp.listen();
+
+            sessions.add(snmp);
+            openSockets.incrementAndGet();
+            sessionsCreated.increment();
+        }
+
+        logger.info("SNMP session pool started with {} session(s)", sessions.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Snmp snmp : sessions) {
+            try {
+                snmp.close();
+                openSockets.decrementAndGet();
+            } catch (IOException e) {
+                logger.warn("SNMP session close failed: {}", e.getMessage());
+            }
+        }
+        sessions.clear();
+        callbackExecutor.shutdownNow();
+        discoveryExecutor.shutdownNow();
+    }
+
+    /**
+     * Havuzdan sıradaki oturumu döndürür.
+     */
+    public Snmp nextSession() {
+        int index = Math.floorMod(nextSession.getAndIncrement(), sessions.size());
+        return sessions.get(index);
+    }
+
+    /**
+     * PDU'yu paylaşımlı oturum üzerinden senkron gönderir.
+     */
+    public <A extends Address> ResponseEvent<A> send(PDU pdu, Target<A> target) throws IOException {
+        inFlightRequests.incrementAndGet();
+        try {
+            return nextSession().send(pdu, target);
+        } finally {
+            inFlightRequests.decrementAndGet();
+        }
+    }
+
+    /**
+     * PDU'yu bloklamadan gönderir. Dönen future yanıt veya timeout geldiğinde
+     * callback havuzunda tamamlanır; timeout durumunda yanıt PDU'su null olur.
+     */
+    public <A extends Address> CompletableFuture<ResponseEvent<A>> sendAsync(PDU pdu, Target<A> target) {
+        CompletableFuture<ResponseEvent<A>> future = new CompletableFuture<>();
+        Snmp snmp = nextSession();
+        AtomicBoolean answered = new AtomicBoolean();
+
+        ResponseListener listener = new ResponseListener() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T extends Address> void onResponse(ResponseEvent<T> event) {
+                // Retry'ların bu listener'a tekrar düşmemesi için isteği iptal et
+                snmp.cancel(event.getRequest(), this);
+                if (!answered.compareAndSet(false, true)) {
+                    return;
+                }
+                inFlightRequests.decrementAndGet();
+                callbackExecutor.execute(() -> future.complete((ResponseEvent<A>) event));
+            }
+        };
+
+        inFlightRequests.incrementAndGet();
+        try {
+            snmp.send(pdu, target, null, listener);
+        } catch (IOException e) {
+            inFlightRequests.decrementAndGet();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * UserTarget'a agent'ın engine ID'sini yazar ve cihazın kullanıcısını o
+     * engine için USM'e ekler. Engine ID önbellekte yoksa bir kez keşfedilir;
+     * aynı adres için eş zamanlı çağrılar aynı keşfi bekler.
+     */
+    public CompletableFuture<Target<UdpAddress>> prepareUserTarget(UserTarget<UdpAddress> target, Device device) {
+        return engineIdOf(target.getAddress(), target.getTimeout()).thenApply(engineId -> {
+            registerUser(engineId, device);
+            target.setAuthoritativeEngineID(engineId.getValue());
+            return target;
+        });
+    }
+
+    /**
+     * Adresin engine ID'sini önbellekten siler; bir sonraki istekte tekrar
+     * keşfedilir (ör. cihaz değişti veya engine ID yeniden üretildi).
+     */
+    public void forgetEngine(UdpAddress address) {
+        engineIds.remove(address.toString());
+        mpv3.removeEngineID(address);
+    }
+
+    public int securityLevelOf(Device device) {
+        if (isBlank(device.getAuthPassphrase())) {
+            return SecurityLevel.NOAUTH_NOPRIV;
+        }
+        return isBlank(device.getPrivPassphrase()) ? SecurityLevel.AUTH_NOPRIV : SecurityLevel.AUTH_PRIV;
+    }
+
+    private CompletableFuture<OctetString> engineIdOf(UdpAddress address, long timeoutMs) {
+        String key = address.toString();
+        CompletableFuture<OctetString> created = new CompletableFuture<>();
+        CompletableFuture<OctetString> existing = engineIds.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            discoveryExecutor.execute(() -> {
+                byte[] engineId = nextSession().discoverAuthoritativeEngineID(address, timeoutMs);
+                if (engineId == null || engineId.length == 0) {
+                    // Keşif başarısızsa bir sonraki istekte tekrar denenir
+                    engineIds.remove(key, created);
+                    created.completeExceptionally(new SnmpTimeoutException());
+                    return;
+                }
+                OctetString id = new OctetString(engineId);
+                mpv3.addEngineID(address, id);
+                created.complete(id);
+            });
+        } catch (RejectedExecutionException e) {
+            engineIds.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * Kullanıcıyı engine için yerelleştirilmiş anahtarlarla USM'e ekler.
+     * Anahtar türetme pahalıdır; kimlik bilgileri değişmedikçe tekrarlanmaz.
+     */
+    private void registerUser(OctetString engineId, Device device) {
+        String key = engineId.toHexString() + "|" + device.getSecurityName();
+        int fingerprint = Objects.hash(device.getAuthProtocol(), device.getAuthPassphrase(),
+                device.getPrivProtocol(), device.getPrivPassphrase());
+        Integer registered = localizedUsers.get(key);
+        if (registered != null && registered == fingerprint) {
+            return;
+        }
+
+        synchronized (localizedUsers) {
+            registered = localizedUsers.get(key);
+            if (registered != null && registered == fingerprint) {
+                return;
+            }
+            OctetString securityName = new OctetString(device.getSecurityName());
+            usm.addUser(securityName, engineId, toUsmUser(securityName, device));
+            localizedUsers.put(key, fingerprint);
+            localizationsCounter.increment();
+        }
+    }
+
+    private static UsmUser toUsmUser(OctetString securityName, Device device) {
+        boolean auth = !isBlank(device.getAuthPassphrase());
+        boolean priv = auth && !isBlank(device.getPrivPassphrase());
+        return new UsmUser(securityName,
+                auth ? authProtocolOf(device.getAuthProtocol()) : null,
+                auth ? new OctetString(device.getAuthPassphrase()) : null,
+                priv ? privProtocolOf(device.getPrivProtocol()) : null,
+                priv ? new OctetString(device.getPrivPassphrase()) : null);
+    }
+
+    private static OID authProtocolOf(String name) {
+        String protocol = name != null ? name.toUpperCase(Locale.ROOT).replace("-", "") : "SHA";
+        return switch (protocol) {
+            case "MD5" -> AuthMD5.ID;
+            case "SHA", "SHA1" -> AuthSHA.ID;
+            case "SHA224" -> AuthHMAC128SHA224.ID;
+            case "SHA256" -> AuthHMAC192SHA256.ID;
+            case "SHA384" -> AuthHMAC256SHA384.ID;
+            case "SHA512" -> AuthHMAC384SHA512.ID;
+            default -> throw new IllegalArgumentException("Unsupported SNMPv3 auth protocol: " + name);
+        };
+    }
+
+    private static OID privProtocolOf(String name) {
+        String protocol = name != null ? name.toUpperCase(Locale.ROOT).replace("-", "") : "AES128";
+        return switch (protocol) {
+            case "DES" -> PrivDES.ID;
+            case "3DES" -> Priv3DES.ID;
+            case "AES", "AES128" -> PrivAES128.ID;
+            case "AES192" -> PrivAES192.ID;
+            case "AES256" -> PrivAES256.ID;
+            default -> throw new IllegalArgumentException("Unsupported SNMPv3 privacy protocol: " + name);
+        };
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    public int getOpenSockets() {
+        return openSockets.get();
+    }
+
+    public int getInFlightRequests() {
+        return inFlightRequests.get();
+    }
+}
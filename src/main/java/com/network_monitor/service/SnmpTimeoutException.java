@@ -0,0 +1,13 @@
+package com.network_monitor.service;
+
+/**
+ * Agent'tan yanıt alınamadı (timeout veya bağlantı hatası). Agent'ın hata
+ * durumuyla yanıt vermesinden farklı olarak cihazın erişilemez olduğunu
+ * gösterir.
+ */
+public class SnmpTimeoutException extends RuntimeException {
+
+    public SnmpTimeoutException() {
+        super("SNMP yanıtı alınamadı (timeout veya bağlantı hatası)");
+    }
+}
@@ -0,0 +1,343 @@
+package com.network_monitor.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.snmp4j.CommandResponder;
+import org.snmp4j.CommandResponderEvent;
+import org.snmp4j.MessageDispatcherImpl;
+import org.snmp4j.MessageException;
+import org.snmp4j.PDU;
+import org.snmp4j.PDUv1;
+import org.snmp4j.Snmp;
+import org.snmp4j.mp.MPv1;
+import org.snmp4j.mp.MPv2c;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.mp.StatusInformation;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.IpAddress;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.VariableBinding;
+import org.snmp4j.transport.DefaultUdpTransportMapping;
+import org.snmp4j.util.MultiThreadedMessageDispatcher;
+import org.snmp4j.util.ThreadPool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.network_monitor.model.SnmpTrap;
+import com.network_monitor.model.SnmpTrap.Varbind;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * SNMP trap (v1, v2c) ve inform alıcısı. Paketler SNMP4J'nin çok thread'li
+ * dispatcher'ı ile worker havuzunda çözülür; inform'lar hemen yanıtlanır.
+ * Aynı kaynaktan aynı içerikle gelen trap'ler dedupe penceresi boyunca
+ * bastırılır ve sayılır; pencere kapandığında bastırılan sayı "summary"
+ * tipinde bir kayıtla bildirilir. Trap'ler ve özetler {@link SnmpTrapWriter}
+ * ile batch halinde yayınlanır ve kaydedilir. Port bağlanamazsa (ör. 162 için yetki yok)
+ * uygulama trap'siz çalışmaya devam eder.
+ */
+@Component
+public class SnmpTrapReceiver implements CommandResponder {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnmpTrapReceiver.class);
+
+    // Dedupe anahtarına girmeyen, her trap'te değişen varbind'ler
+    private static final List<OID> VOLATILE_OIDS = List.of(SnmpConstants.sysUpTime, SnmpConstants.snmpTrapOID,
+            SnmpConstants.snmpTrapAddress);
+
+    @Value("${netmon.trap.enabled:true}")
+    private boolean enabled;
+
+    @Value("${netmon.trap.address:0.0.0.0}")
+    private String listenAddress;
+
+    // Testlerde yetkisiz bir port (ör. 10162) kullanılabilir
+    @Value("${netmon.trap.port:162}")
+    private int port;
+
+    @Value("${netmon.trap.worker-threads:4}")
+    private int workerThreads;
+
+    // Trap fırtınasında çekirdekte paket kaybını azaltmak için UDP alım tamponu
+    @Value("${netmon.trap.receive-buffer-bytes:4194304}")
+    private int receiveBufferBytes;
+
+    // Boşsa tüm community'ler kabul edilir
+    @Value("${netmon.trap.community:}")
+    private String community;
+
+    @Value("${netmon.trap.dedupe-window-ms:10000}")
+    private long dedupeWindowMs;
+
+    @Value("${netmon.trap.dedupe-max-keys:100000}")
+    private long dedupeMaxKeys;
+
+    @Autowired
+    private SnmpTrapWriter trapWriter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Snmp snmp;
+    private ThreadPool workers;
+    private Cache<String, DedupeWindow> recentTraps;
+
+    private Counter receivedCounter;
+    private Counter suppressedCounter;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void start() {
+        receivedCounter = Counter.builder("snmp.traps.received").register(meterRegistry);
+        suppressedCounter = Counter.builder("snmp.traps.suppressed")
+                .description("Duplicate SNMP traps folded into an earlier trap")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("snmp.traps.rejected")
+                .description("SNMP traps with an unexpected community")
+                .register(meterRegistry);
+        recentTraps = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, dedupeMaxKeys))
+                .expireAfterAccess(Duration.ofMillis(Math.max(1, dedupeWindowMs) * 10))
+                // Kapasite yüzünden atılan pencerelerin sayısı kaybolmasın
+                .evictionListener((String key, DedupeWindow window, RemovalCause cause) -> emitSummary(window))
+                .build();
+
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            DefaultUdpTransportMapping transport = new DefaultUdpTransportMapping(
+                    new UdpAddress(listenAddress + "/" + port), true);
+            transport.setReceiveBufferSize(receiveBufferBytes);
+
+            workers = ThreadPool.create("snmp-trap", Math.max(1, workerThreads));
+            MultiThreadedMessageDispatcher dispatcher = new MultiThreadedMessageDispatcher(workers,
+                    new MessageDispatcherImpl());
+            dispatcher.addMessageProcessingModel(new MPv1());
+            dispatcher.addMessageProcessingModel(new MPv2c());
+
+            snmp = new Snmp(dispatcher, transport);
+            snmp.addCommandResponder(this);
+            snmp.listen();
+            logger.info("SNMP trap receiver listening on {}/{}", listenAddress, port);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("SNMP trap receiver could not bind {}/{}: {}", listenAddress, port, e.getMessage());
+            stop();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (snmp != null) {
+            try {
+                snmp.close();
+            } catch (IOException e) {
+                logger.warn("SNMP trap receiver close failed: {}", e.getMessage());
+            }
+            snmp = null;
+        }
+        if (workers != null) {
+            workers.stop();
+            workers = null;
+        }
+    }
+
+    public boolean isListening() {
+        return snmp != null;
+    }
+
+    @Override
+    public <A extends Address> void processPdu(CommandResponderEvent<A> event) {
+        PDU pdu = event.getPDU();
+        if (pdu == null || (pdu.getType() != PDU.TRAP && pdu.getType() != PDU.V1TRAP
+                && pdu.getType() != PDU.INFORM)) {
+            return;
+        }
+        event.setProcessed(true);
+
+        if (!community.isEmpty() && !community.equals(new OctetString(event.getSecurityName()).toString())) {
+            rejectedCounter.increment();
+            return;
+        }
+
+        receivedCounter.increment();
+        if (pdu.getType() == PDU.INFORM) {
+            acknowledge(event);
+        }
+
+        try {
+            SnmpTrap trap = toTrap(event);
+            if (!admit(trap)) {
+                suppressedCounter.increment();
+                return;
+            }
+            trapWriter.enqueue(trap);
+        } catch (RuntimeException e) {
+            logger.warn("SNMP trap from {} could not be processed: {}", event.getPeerAddress(), e.getMessage());
+        }
+    }
+
+    /**
+     * Trap dedupe penceresinde ilk ise true döner ve yeni bir pencere açar;
+     * süresi dolmuş önceki pencere varsa özeti gönderilir.
+     */
+    private boolean admit(SnmpTrap trap) {
+        long now = System.currentTimeMillis();
+        DedupeWindow[] closed = { null };
+        boolean[] admitted = { false };
+        recentTraps.asMap().compute(dedupeKey(trap), (key, window) -> {
+            if (window == null || now - window.startMs >= dedupeWindowMs) {
+                closed[0] = window;
+                admitted[0] = true;
+                return new DedupeWindow(trap, now);
+            }
+            window.suppressed++;
+            return window;
+        });
+        emitSummary(closed[0]);
+        return admitted[0];
+    }
+
+    /**
+     * Süresi dolan dedupe pencerelerini kapatır; aynı trap tekrar gelmese de
+     * bastırılan sayı pencere bittikten kısa süre sonra bildirilir.
+     */
+    @Scheduled(fixedDelayString = "${netmon.trap.dedupe-sweep-ms:1000}")
+    public void closeExpiredWindows() {
+        long now = System.currentTimeMillis();
+        for (String key : recentTraps.asMap().keySet()) {
+            DedupeWindow[] closed = { null };
+            recentTraps.asMap().computeIfPresent(key, (k, window) -> {
+                if (now - window.startMs < dedupeWindowMs) {
+                    return window;
+                }
+                closed[0] = window;
+                return null;
+            });
+            emitSummary(closed[0]);
+        }
+    }
+
+    /**
+     * Pencerede bastırılan trap varsa ilk trap'in kopyasını "summary" tipinde
+     * ve suppressedCount ile gönderir.
+     */
+    private void emitSummary(DedupeWindow window) {
+        if (window == null || window.suppressed == 0) {
+            return;
+        }
+        SnmpTrap first = window.first;
+        SnmpTrap summary = new SnmpTrap();
+        summary.setSourceIp(first.getSourceIp());
+        summary.setTrapOid(first.getTrapOid());
+        summary.setType(SnmpTrap.TYPE_SUMMARY);
+        summary.setVersion(first.getVersion());
+        summary.setUptime(first.getUptime());
+        summary.setVarbinds(new ArrayList<>(first.getVarbinds()));
+        summary.setSuppressedCount(window.suppressed);
+        summary.setReceivedAt(LocalDateTime.now());
+        trapWriter.enqueue(summary);
+    }
+
+    private static String dedupeKey(SnmpTrap trap) {
+        StringBuilder key = new StringBuilder(128).append(trap.getSourceIp()).append('|').append(trap.getTrapOid());
+        for (Varbind varbind : trap.getVarbinds()) {
+            key.append('|').append(varbind.getOid()).append('=').append(varbind.getValue());
+        }
+        return key.toString();
+    }
+
+    private <A extends Address> void acknowledge(CommandResponderEvent<A> event) {
+        PDU response = (PDU) event.getPDU().clone();
+        response.setType(PDU.RESPONSE);
+        response.setErrorStatus(PDU.noError);
+        response.setErrorIndex(0);
+        try {
+            event.getMessageDispatcher().returnResponsePdu(event.getMessageProcessingModel(),
+                    event.getSecurityModel(), event.getSecurityName(), event.getSecurityLevel(), response,
+                    event.getMaxSizeResponsePDU(), event.getStateReference(), new StatusInformation());
+        } catch (MessageException e) {
+            logger.warn("SNMP inform from {} could not be acknowledged: {}", event.getPeerAddress(), e.getMessage());
+        }
+    }
+
+    private <A extends Address> SnmpTrap toTrap(CommandResponderEvent<A> event) {
+        PDU pdu = event.getPDU();
+        SnmpTrap trap = new SnmpTrap();
+        trap.setSourceIp(sourceIpOf(event.getPeerAddress()));
+        trap.setReceivedAt(LocalDateTime.now());
+        trap.setVersion(event.getMessageProcessingModel() == MPv1.ID ? "1" : "2c");
+        trap.setType(pdu.getType() == PDU.INFORM ? "inform" : pdu.getType() == PDU.V1TRAP ? "v1-trap" : "trap");
+
+        if (pdu instanceof PDUv1 v1) {
+            trap.setTrapOid(v1TrapOid(v1).toString());
+            trap.setUptime(v1.getTimestamp());
+        }
+
+        for (VariableBinding vb : pdu.getVariableBindings()) {
+            OID oid = vb.getOid();
+            if (SnmpConstants.snmpTrapOID.equals(oid)) {
+                trap.setTrapOid(vb.getVariable().toString());
+            } else if (SnmpConstants.sysUpTime.equals(oid) && vb.getVariable() instanceof TimeTicks ticks) {
+                trap.setUptime(ticks.getValue());
+            }
+            if (!VOLATILE_OIDS.contains(oid)) {
+                trap.getVarbinds().add(new Varbind(oid.toString(), vb.getVariable().toString(),
+                        vb.getVariable().getSyntaxString()));
+            }
+        }
+        return trap;
+    }
+
+    /**
+     * RFC 3584: generic trap'ler snmpTraps.(generic+1), enterprise-specific
+     * trap'ler enterprise.0.specific olarak eşlenir.
+     */
+    private static OID v1TrapOid(PDUv1 pdu) {
+        if (pdu.getGenericTrap() != PDUv1.ENTERPRISE_SPECIFIC) {
+            return new OID(SnmpConstants.snmpTraps).append(pdu.getGenericTrap() + 1);
+        }
+        OID enterprise = pdu.getEnterprise() != null ? new OID(pdu.getEnterprise()) : new OID();
+        return enterprise.append(0).append(pdu.getSpecificTrap());
+    }
+
+    private static String sourceIpOf(Address address) {
+        if (address instanceof UdpAddress udp) {
+            return udp.getInetAddress().getHostAddress();
+        }
+        if (address instanceof IpAddress ip) {
+            return ip.getInetAddress().getHostAddress();
+        }
+        return String.valueOf(address);
+    }
+
+    private static final class DedupeWindow {
+        private final SnmpTrap first;
+        private final long startMs;
+        private int suppressed;
+
+        DedupeWindow(SnmpTrap first, long startMs) {
+            this.first = first;
+            this.startMs = startMs;
+        }
+    }
+}
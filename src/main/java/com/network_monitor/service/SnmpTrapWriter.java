@@ -0,0 +1,186 @@
+package com.network_monitor.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.network_monitor.event.SnmpTrapsReceivedEvent;
+import com.network_monitor.model.SnmpTrap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Trap'ler için batch'leyici. Alıcı thread'leri trap'leri sınırlı bir kuyruğa
+ * bırakır; ayrı bir thread kuyruğu boyut veya süre eşiğinde boşaltır, batch'i
+ * {@link SnmpTrapsReceivedEvent} olarak yayınlar (WebSocket push) ve toplu
+ * insert için yazma thread'ine verir. Veritabanı yavaşlasa da push gecikmez.
+ */
+@Component
+public class SnmpTrapWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnmpTrapWriter.class);
+
+    @Value("${netmon.trap.persistence-enabled:true}")
+    private boolean persistenceEnabled;
+
+    @Value("${netmon.trap.queue-capacity:20000}")
+    private int queueCapacity;
+
+    @Value("${netmon.trap.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${netmon.trap.flush-interval-ms:250}")
+    private long flushIntervalMs;
+
+    // Yazılmayı bekleyebilecek en fazla batch; dolunca yeni batch'ler yazılmaz
+    @Value("${netmon.trap.max-pending-batches:32}")
+    private int maxPendingBatches;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<SnmpTrap> queue;
+    private ThreadPoolExecutor persistenceExecutor;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private Timer insertTimer;
+    private Counter writtenCounter;
+    private Counter droppedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        Gauge.builder("snmp.traps.queue.depth", queue, BlockingQueue::size)
+                .description("SNMP traps waiting to be pushed and written")
+                .register(meterRegistry);
+        insertTimer = Timer.builder("snmp.traps.insert")
+                .description("Bulk insert latency of SNMP trap batches")
+                .register(meterRegistry);
+        writtenCounter = Counter.builder("snmp.traps.written").register(meterRegistry);
+        droppedCounter = Counter.builder("snmp.traps.dropped").register(meterRegistry);
+        failedCounter = Counter.builder("snmp.traps.failed").register(meterRegistry);
+
+        persistenceExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxPendingBatches)), runnable -> {
+                    Thread thread = new Thread(runnable, "snmp-trap-persistence");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "snmp-trap-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(Math.max(5_000, flushIntervalMs * 2));
+        }
+        persistenceExecutor.shutdown();
+        persistenceExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Trap'i kuyruğa bırakır; kuyruk doluysa trap atılır, çağıran bloklanmaz.
+     */
+    public void enqueue(SnmpTrap trap) {
+        if (!queue.offer(trap)) {
+            droppedCounter.increment();
+        }
+    }
+
+    private void runFlusher() {
+        List<SnmpTrap> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                SnmpTrap first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Batch dolana veya süre eşiği geçene kadar topla
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    SnmpTrap next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(List.copyOf(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Trap batch handling failed: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<SnmpTrap> batch) {
+        eventPublisher.publishEvent(new SnmpTrapsReceivedEvent(this, batch));
+        if (!persistenceEnabled) {
+            return;
+        }
+
+        try {
+            persistenceExecutor.execute(() -> insert(batch));
+        } catch (RejectedExecutionException e) {
+            // Veritabanı yetişemiyor; push yapıldı, kayıt atlanır
+            droppedCounter.increment(batch.size());
+            logger.warn("Trap persistence is falling behind, {} traps not stored", batch.size());
+        }
+    }
+
+    private void insert(List<SnmpTrap> batch) {
+        long start = System.nanoTime();
+        try {
+            mongoTemplate.insert(batch, SnmpTrap.class);
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            logger.error("SNMP trap bulk insert of {} traps failed: {}", batch.size(), e.getMessage());
+        } finally {
+            insertTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -1,28 +1,78 @@
 package com.network_monitor.service;
 
+import java.time.Duration;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.network_monitor.event.UserChangedEvent;
 import com.network_monitor.model.User;
 import com.network_monitor.repository.UserRepository;
 import com.network_monitor.security.services.UserDetailsImpl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
   @Autowired
   UserRepository userRepository;
 
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @Value("${netmon.auth.user-cache.max-size:10000}")
+  private long maxSize;
+
+  @Value("${netmon.auth.user-cache.ttl-ms:300000}")
+  private long ttlMs;
+
+  // username -> UserDetails; kullanıcı ve @DBRef rolleri her istekte okunmasın diye
+  private Cache<String, UserDetails> userCache;
+
+  @PostConstruct
+  public void init() {
+    userCache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofMillis(ttlMs))
+        .recordStats()
+        .build();
+    // cache.gets{result=hit|miss}, cache.evictions, cache.size
+    CaffeineCacheMetrics.monitor(meterRegistry, userCache, "userDetails");
+  }
+
   @Override
   @Transactional
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    UserDetails cached = userCache.getIfPresent(username);
+    if (cached != null) {
+      return cached;
+    }
+
     User user = userRepository.findByUsername(username)
         .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
 
-    return UserDetailsImpl.build(user);
+    UserDetails userDetails = UserDetailsImpl.build(user);
+    userCache.put(username, userDetails);
+    return userDetails;
+  }
+
+  public void evict(String username) {
+    userCache.invalidate(username);
+  }
+
+  @EventListener
+  public void handleUserChanged(UserChangedEvent event) {
+    evict(event.getUsername());
   }
 
 }
@@ -0,0 +1,75 @@
+package com.network_monitor.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.adapter.standard.StandardWebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SlowConsumerInterceptorTest {
+
+    private SlowConsumerInterceptor interceptor;
+    private String sessionId;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new SlowConsumerInterceptor();
+        ReflectionTestUtils.setField(interceptor, "maxPendingPerSession", 2);
+        ReflectionTestUtils.setField(interceptor, "maxBufferedBytes", 131072);
+        ReflectionTestUtils.setField(interceptor, "meterRegistry", new SimpleMeterRegistry());
+        interceptor.init();
+
+        ConcurrentWebSocketSessionDecorator session = new ConcurrentWebSocketSessionDecorator(
+                new StandardWebSocketSession(new HttpHeaders(), Map.of(), null, null), 1000, 65536);
+        sessionId = session.getId();
+        interceptor.registerSession(session);
+    }
+
+    @Test
+    void dropsMetricFramesOncePendingLimitIsReached() {
+        assertThat(interceptor.preSend(metricFrame(sessionId), null)).isNotNull();
+        assertThat(interceptor.preSend(metricFrame(sessionId), null)).isNotNull();
+
+        assertThat(interceptor.preSend(metricFrame(sessionId), null)).isNull();
+        assertThat(interceptor.takeLagging(sessionId)).isTrue();
+    }
+
+    @Test
+    void messagesAfterDisconnectDoNotRecreateSessionState() {
+        interceptor.handleSessionDisconnect(new SessionDisconnectEvent(this, disconnectAck(sessionId), sessionId,
+                CloseStatus.NORMAL));
+
+        Message<byte[]> disconnectAck = disconnectAck(sessionId);
+        assertThat(interceptor.preSend(disconnectAck, null)).isSameAs(disconnectAck);
+        interceptor.afterMessageHandled(disconnectAck, null, null, null);
+
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(interceptor, "pending")).isEmpty();
+        assertThat(interceptor.takeLagging(sessionId)).isFalse();
+    }
+
+    private static Message<byte[]> metricFrame(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setHeader(SlowConsumerInterceptor.DROPPABLE_HEADER, true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> disconnectAck(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT_ACK);
+        accessor.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,23 @@
+package com.network_monitor.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class StompAuthChannelInterceptorTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = { "/topic/netmon.samples", "/topic/netmon.other", "/topic/simp-user-registry",
+            "/topic/unresolved-user-destination", "/topic/#", "/topic/netmon.*", "/topic/>", "/topic/*.samples" })
+    void rejectsInternalAndWildcardSubscriptions(String destination) {
+        assertThat(StompAuthChannelInterceptor.isForbiddenSubscription(destination)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "/topic/high-frequency-data", "/topic/device-health", "/topic/traps",
+            "/user/queue/metrics-delta" })
+    void allowsPublicSubscriptions(String destination) {
+        assertThat(StompAuthChannelInterceptor.isForbiddenSubscription(destination)).isFalse();
+    }
+}
@@ -0,0 +1,68 @@
+package com.network_monitor.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import com.network_monitor.security.services.UserDetailsImpl;
+
+/**
+ * Login cookie'si ile açılan WebSocket handshake'inin STOMP CONNECT'te
+ * doğrulandığını kontrol eder (netmon.ws.auth.required=true).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "netmon.ws.auth.required=true", "netmon.trap.enabled=false" })
+class WebSocketCookieAuthTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void loginCookieIsSentOnHandshakeAndAuthenticatesConnect() throws Exception {
+        ResponseCookie cookie = jwtUtils.generateJwtCookie(new UserDetailsImpl("1", "admin", "admin@example.com",
+                "secret", List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        // Tarayıcı cookie'yi yalnızca path'i kapsayan isteklere ekler
+        assertThat("/ws/snmp-data").startsWith(cookie.getPath());
+
+        WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+        handshakeHeaders.add(HttpHeaders.COOKIE, cookie.getName() + "=" + cookie.getValue());
+
+        StompSession session = connect(handshakeHeaders).get(10, TimeUnit.SECONDS);
+        assertThat(session.isConnected()).isTrue();
+        session.disconnect();
+    }
+
+    @Test
+    void connectWithoutCookieIsRejected() {
+        assertThatThrownBy(() -> connect(new WebSocketHttpHeaders()).get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+    }
+
+    private CompletableFuture<StompSession> connect(WebSocketHttpHeaders handshakeHeaders) {
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        return client.connectAsync("ws://localhost:" + port + "/ws/snmp-data", handshakeHeaders,
+                new StompHeaders(), new StompSessionHandlerAdapter() {
+                });
+    }
+}
@@ -0,0 +1,123 @@
+package com.network_monitor.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class CounterRateEngineTest {
+
+  private static final String IP = "10.0.0.1";
+  private static final String OID = "1.3.6.1.2.1.2.2.1.10.1";
+
+  private final CounterRateEngine engine = new CounterRateEngine();
+
+  @Test
+  void firstSampleHasNoRate() {
+    assertThat(engine.rate(IP, OID, 1000, false, 1_000)).isNaN();
+  }
+
+  @Test
+  void computesPerSecondRate() {
+    engine.rate(IP, OID, 1000, false, 1_000);
+
+    assertThat(engine.rate(IP, OID, 6000, false, 11_000)).isEqualTo(500.0);
+  }
+
+  @Test
+  void noRateWhenTimeDoesNotAdvance() {
+    engine.rate(IP, OID, 1000, false, 1_000);
+
+    assertThat(engine.rate(IP, OID, 2000, false, 1_000)).isNaN();
+  }
+
+  @Test
+  void counter32Wrap() {
+    engine.rate(IP, OID, (1L << 32) - 100, false, 1_000);
+
+    assertThat(engine.rate(IP, OID, 50, false, 2_000)).isEqualTo(150.0);
+  }
+
+  @Test
+  void counter64WrapAcrossUnsignedMaximum() {
+    // 2^64 - 100 işaretli long'da -100'dür
+    engine.rate(IP, OID, -100L, true, 1_000);
+
+    assertThat(engine.rate(IP, OID, 50, true, 2_000)).isEqualTo(150.0);
+  }
+
+  @Test
+  void counter64AcrossSignedBoundaryIsNotAWrap() {
+    engine.rate(IP, OID, Long.MAX_VALUE - 4, true, 1_000);
+
+    assertThat(engine.rate(IP, OID, Long.MIN_VALUE + 5, true, 2_000)).isEqualTo(10.0);
+  }
+
+  @Test
+  void counter64LargeIncrementStaysUnsigned() {
+    engine.rate(IP, OID, 0, true, 1_000);
+
+    assertThat(engine.rate(IP, OID, -1L, true, 2_000)).isCloseTo(0x1p64, within(1e4));
+  }
+
+  @Test
+  void restartSkipsOneSampleForEveryCounter() {
+    String otherOid = "1.3.6.1.2.1.2.2.1.16.1";
+    engine.observeUptime(IP, 10_000);
+    engine.rate(IP, OID, 1000, false, 1_000);
+    engine.rate(IP, otherOid, 1000, false, 1_000);
+
+    // Uptime geriye gitti: agent yeniden başladı, sayaçlar sıfırlandı
+    engine.observeUptime(IP, 50);
+
+    assertThat(engine.rate(IP, OID, 10, false, 2_000)).isNaN();
+    assertThat(engine.rate(IP, otherOid, 20, false, 2_000)).isNaN();
+    assertThat(engine.rate(IP, OID, 1010, false, 3_000)).isEqualTo(1000.0);
+  }
+
+  @Test
+  void advancingUptimeKeepsGeneration() {
+    engine.observeUptime(IP, 10_000);
+    engine.rate(IP, OID, 1000, false, 1_000);
+    engine.observeUptime(IP, 10_100);
+
+    assertThat(engine.rate(IP, OID, 2000, false, 2_000)).isEqualTo(1000.0);
+  }
+
+  @Test
+  void restartOnOneDeviceDoesNotAffectAnother() {
+    String otherIp = "10.0.0.2";
+    engine.observeUptime(IP, 10_000);
+    engine.observeUptime(otherIp, 10_000);
+    engine.rate(IP, OID, 1000, false, 1_000);
+    engine.rate(otherIp, OID, 1000, false, 1_000);
+
+    engine.observeUptime(IP, 50);
+
+    assertThat(engine.rate(IP, OID, 10, false, 2_000)).isNaN();
+    assertThat(engine.rate(otherIp, OID, 2000, false, 2_000)).isEqualTo(1000.0);
+  }
+
+  @Test
+  void lastRateIsReadOnly() {
+    assertThat(engine.lastRate(IP, OID)).isNaN();
+    engine.rate(IP, OID, 1000, false, 1_000);
+    engine.rate(IP, OID, 2000, false, 2_000);
+
+    assertThat(engine.lastRate(IP, OID)).isEqualTo(1000.0);
+    assertThat(engine.lastRate(IP, OID)).isEqualTo(1000.0);
+    // Okuma sonraki poll'un aralığını değiştirmez
+    assertThat(engine.rate(IP, OID, 4000, false, 4_000)).isEqualTo(1000.0);
+  }
+
+  @Test
+  void lastRateIsDiscardedAfterRestart() {
+    engine.observeUptime(IP, 10_000);
+    engine.rate(IP, OID, 1000, false, 1_000);
+    engine.rate(IP, OID, 2000, false, 2_000);
+
+    engine.observeUptime(IP, 50);
+
+    assertThat(engine.lastRate(IP, OID)).isNaN();
+  }
+}
@@ -0,0 +1,141 @@
+package com.network_monitor.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.network_monitor.event.DeviceHealthChangedEvent;
+import com.network_monitor.model.EDeviceHealth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DeviceHealthServiceTest {
+
+    private static final String IP = "10.0.0.1";
+
+    private final List<DeviceHealthChangedEvent> events = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private DeviceHealthService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new DeviceHealthService();
+        ApplicationEventPublisher publisher = event -> events.add((DeviceHealthChangedEvent) event);
+        ReflectionTestUtils.setField(service, "failureThreshold", 3);
+        ReflectionTestUtils.setField(service, "openMs", 60_000L);
+        ReflectionTestUtils.setField(service, "eventPublisher", publisher);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        service.init();
+    }
+
+    @Test
+    void staysClosedBelowThreshold() {
+        service.recordFailure(IP);
+        service.recordFailure(IP);
+
+        assertThat(service.getState(IP)).isEqualTo(EDeviceHealth.CLOSED);
+        assertThat(service.tryAcquire(IP)).isTrue();
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        service.recordFailure(IP);
+        service.recordFailure(IP);
+        service.recordSuccess(IP);
+        service.recordFailure(IP);
+
+        assertThat(service.getState(IP)).isEqualTo(EDeviceHealth.CLOSED);
+    }
+
+    @Test
+    void opensAtThresholdAndRejects() {
+        openCircuit();
+
+        assertThat(service.getState(IP)).isEqualTo(EDeviceHealth.OPEN);
+        assertThat(service.tryAcquire(IP)).isFalse();
+        assertThat(service.isProbeDue(IP)).isFalse();
+        assertThat(meterRegistry.counter("snmp.breaker.rejected").count()).isEqualTo(1.0);
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.getPrevious()).isEqualTo(EDeviceHealth.CLOSED);
+            assertThat(event.getCurrent()).isEqualTo(EDeviceHealth.OPEN);
+        });
+    }
+
+    @Test
+    void admitsSingleTrialAfterOpenPeriod() {
+        ReflectionTestUtils.setField(service, "openMs", 0L);
+        openCircuit();
+
+        assertThat(service.isProbeDue(IP)).isTrue();
+        assertThat(service.tryAcquire(IP)).isTrue();
+        assertThat(service.getState(IP)).isEqualTo(EDeviceHealth.HALF_OPEN);
+        assertThat(service.tryAcquire(IP)).isFalse();
+    }
+
+    @Test
+    void trialSuccessCloses() {
+        ReflectionTestUtils.setField(service, "openMs", 0L);
+        openCircuit();
+        service.tryAcquire(IP);
+
+        service.recordSuccess(IP);
+
+        assertThat(service.getState(IP)).isEqualTo(EDeviceHealth.CLOSED);
+        assertThat(service.tryAcquire(IP)).isTrue();
+        assertThat(events).extracting(DeviceHealthChangedEvent::getCurrent)
+                .containsExactly(EDeviceHealth.OPEN, EDeviceHealth.HALF_OPEN, EDeviceHealth.CLOSED);
+    }
+
+    @Test
+    void trialFailureReopens() {
+        ReflectionTestUtils.setField(service, "openMs", 0L);
+        openCircuit();
+        service.tryAcquire(IP);
+        ReflectionTestUtils.setField(service, "openMs", 60_000L);
+
+        service.recordFailure(IP);
+
+        assertThat(service.getState(IP)).isEqualTo(EDeviceHealth.OPEN);
+        assertThat(service.tryAcquire(IP)).isFalse();
+        assertThat(events).extracting(DeviceHealthChangedEvent::getCurrent)
+                .containsExactly(EDeviceHealth.OPEN, EDeviceHealth.HALF_OPEN, EDeviceHealth.OPEN);
+    }
+
+    @Test
+    void releasedTrialReopensWithNewRetryTime() {
+        ReflectionTestUtils.setField(service, "openMs", 0L);
+        openCircuit();
+        service.tryAcquire(IP);
+        ReflectionTestUtils.setField(service, "openMs", 60_000L);
+
+        service.releaseTrial(IP);
+
+        assertThat(service.getState(IP)).isEqualTo(EDeviceHealth.OPEN);
+        assertThat(service.isProbeDue(IP)).isFalse();
+        assertThat(events).extracting(DeviceHealthChangedEvent::getCurrent)
+                .containsExactly(EDeviceHealth.OPEN, EDeviceHealth.HALF_OPEN, EDeviceHealth.OPEN);
+    }
+
+    @Test
+    void releaseTrialIgnoresClosedDevice() {
+        service.recordFailure(IP);
+        service.releaseTrial(IP);
+
+        assertThat(service.getState(IP)).isEqualTo(EDeviceHealth.CLOSED);
+        assertThat(events).isEmpty();
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++) {
+            service.recordFailure(IP);
+        }
+    }
+}
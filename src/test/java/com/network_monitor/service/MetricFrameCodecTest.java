@@ -0,0 +1,128 @@
+package com.network_monitor.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.network_monitor.model.SnmpData;
+
+class MetricFrameCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MetricFrameCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new MetricFrameCodec();
+        ReflectionTestUtils.setField(codec, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void binaryFrameRoundTrip() throws IOException {
+        SnmpData counter = data("10.0.0.1", "ifInOctets", 3, "123456", 123456.0, 812.5);
+        SnmpData text = data("10.0.0.1", "sysDescr", null, "Cisco IOS", null, null);
+
+        byte[] frame = codec.binaryFrame(List.of(codec.encodeRecord(counter), codec.encodeRecord(text)), 42L);
+        List<Decoded> decoded = decode(frame);
+
+        assertThat(decoded).hasSize(2);
+        assertThat(decoded.get(0)).isEqualTo(new Decoded("10.0.0.1", "ifInOctets", 3,
+                MetricFrameCodec.timestampOf(counter), 123456.0, 812.5, null));
+        assertThat(decoded.get(1)).isEqualTo(new Decoded("10.0.0.1", "sysDescr", -1,
+                MetricFrameCodec.timestampOf(text), null, null, "Cisco IOS"));
+    }
+
+    @Test
+    void framesDecodeIndependentlyOfDeliveryOrder() throws IOException {
+        byte[] first = codec.binaryFrame(
+                List.of(codec.encodeRecord(data("10.0.0.1", "cpuUsage", null, "5", 5.0, null))), 1L);
+        byte[] second = codec.binaryFrame(
+                List.of(codec.encodeRecord(data("10.0.0.2", "cpuUsage", null, "7", 7.0, null))), 2L);
+
+        // İkinci frame önce teslim edilse de ilk frame'in sözlüğüne ihtiyaç duymaz
+        Decoded decoded = decode(second).get(0);
+        assertThat(decoded.device()).isEqualTo("10.0.0.2");
+        assertThat(decoded.metric()).isEqualTo("cpuUsage");
+        assertThat(decoded.value()).isEqualTo(7.0);
+        assertThat(decode(first).get(0).device()).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    void jsonFrameWrapsPreEncodedRecords() throws IOException {
+        byte[] frame = codec.jsonFrame("metrics_delta",
+                List.of(codec.encodeJson(Map.of("v", 1)), codec.encodeJson(Map.of("v", 2))), 99L);
+
+        JsonNode root = objectMapper.readTree(frame);
+        assertThat(root.get("type").asText()).isEqualTo("metrics_delta");
+        assertThat(root.get("data")).hasSize(2);
+        assertThat(root.get("data").get(1).get("v").asInt()).isEqualTo(2);
+        assertThat(root.get("timestamp").asLong()).isEqualTo(99L);
+    }
+
+    private static SnmpData data(String ip, String metric, Integer ifIndex, String value, Double numeric,
+            Double rate) {
+        SnmpData data = new SnmpData();
+        data.setDeviceIp(ip);
+        data.setMetricType(metric);
+        data.setIfIndex(ifIndex);
+        data.setValue(value);
+        data.setNumericValue(numeric);
+        data.setRate(rate);
+        data.setTimestamp(LocalDateTime.of(2026, 1, 1, 12, 0));
+        return data;
+    }
+
+    /**
+     * İstemci tarafındaki çözücünün karşılığı; yalnızca frame'in kendi
+     * sözlüğünü kullanır.
+     */
+    private static List<Decoded> decode(byte[] frame) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        assertThat(in.readByte()).isEqualTo(MetricFrameCodec.MAGIC);
+        assertThat(in.readByte()).isEqualTo(MetricFrameCodec.VERSION);
+        in.readLong();
+
+        Map<Integer, String> dictionary = new HashMap<>();
+        int entries = in.readInt();
+        for (int i = 0; i < entries; i++) {
+            int id = in.readInt();
+            dictionary.put(id, new String(in.readNBytes(in.readUnsignedShort()), StandardCharsets.UTF_8));
+        }
+
+        List<Decoded> records = new ArrayList<>();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String device = dictionary.get(in.readInt());
+            String metric = dictionary.get(in.readInt());
+            int ifIndex = in.readInt();
+            long timestamp = in.readLong();
+            int flags = in.readUnsignedByte();
+            Double value = (flags & 0x01) != 0 ? in.readDouble() : null;
+            Double rate = (flags & 0x02) != 0 ? in.readDouble() : null;
+            String text = (flags & 0x04) != 0
+                    ? new String(in.readNBytes(in.readUnsignedShort()), StandardCharsets.UTF_8)
+                    : null;
+            records.add(new Decoded(device, metric, ifIndex, timestamp, value, rate, text));
+        }
+        assertThat(in.available()).isZero();
+        return records;
+    }
+
+    private record Decoded(String device, String metric, int ifIndex, long timestamp, Double value, Double rate,
+            String text) {
+    }
+}
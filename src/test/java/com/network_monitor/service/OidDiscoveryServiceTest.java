@@ -0,0 +1,40 @@
+package com.network_monitor.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+import org.snmp4j.smi.OID;
+
+import com.network_monitor.service.OidDiscoveryService.WalkRange;
+
+class OidDiscoveryServiceTest {
+
+    private final List<WalkRange> ranges = OidDiscoveryService.walkRanges();
+
+    @ParameterizedTest
+    @ValueSource(strings = { "1.3.6.1.1.1.0", "1.3.6.1.2.1.1.1.0", "1.3.6.1.2.1.2.2.1.10.3", "1.3.6.1.2.1.10.7.2.1.1",
+            "1.3.6.1.2.1.17.1.1.0", "1.3.6.1.2.1.25.1.1.0", "1.3.6.1.2.1.31.1.1.1.6.1", "1.3.6.1.2.1.47.1.1.1.1.2.1",
+            "1.3.6.1.2.1.99.1.1.1.4.1", "1.3.6.1.3.1.0", "1.3.6.1.4.1.9.9.1.0", "1.3.6.1.6.3.1.1.6.1.0",
+            "1.3.6.1.6.3.15.1.1.4.0" })
+    void everyOidUnderInternetIsInExactlyOneRange(String oid) {
+        OID value = new OID(oid);
+
+        assertThat(ranges).filteredOn(range -> range.contains(value)).hasSize(1);
+    }
+
+    @Test
+    void oidsOutsideInternetAreNotWalked() {
+        assertThat(ranges).noneMatch(range -> range.contains(new OID("1.3.6.2.1")));
+    }
+
+    @Test
+    void namedSubtreesAreKeptForParallelism() {
+        assertThat(ranges).extracting(WalkRange::name)
+                .contains("system", "interfaces", "ip", "ifX", "enterprises")
+                .anyMatch(name -> name.startsWith("other:"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.network_monitor.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.snmp4j.PDU;
+import org.snmp4j.ScopedPDU;
+import org.snmp4j.UserTarget;
+import org.snmp4j.event.ResponseEvent;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.security.SecurityLevel;
+import org.snmp4j.smi.Counter32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.VariableBinding;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.network_monitor.model.Device;
+
+class SnmpServiceTest {
+
+    private static final UdpAddress ADDRESS = new UdpAddress("10.0.0.1/161");
+
+    private final List<UdpAddress> forgotten = new ArrayList<>();
+    private SnmpSessionManager sessionManager;
+    private SnmpService service;
+    private UserTarget<UdpAddress> target;
+
+    @BeforeEach
+    void setUp() {
+        sessionManager = new SnmpSessionManager() {
+            @Override
+            public void forgetEngine(UdpAddress address) {
+                forgotten.add(address);
+            }
+        };
+        service = new SnmpService();
+        ReflectionTestUtils.setField(service, "sessionManager", sessionManager);
+        target = new UserTarget<>();
+        target.setAddress(ADDRESS);
+        target.setVersion(SnmpConstants.version3);
+    }
+
+    @Test
+    void unknownEngineIdReportForgetsEngine() {
+        ResponseEvent<UdpAddress> response = report(SnmpConstants.usmStatsUnknownEngineIDs);
+
+        assertThatThrownBy(() -> service.responseOf(target, response)).isInstanceOf(SnmpResponseException.class);
+        assertThat(forgotten).containsExactly(ADDRESS);
+    }
+
+    @Test
+    void credentialReportsAreConfigurationErrors() {
+        for (OID oid : List.of(SnmpConstants.usmStatsUnknownUserNames, SnmpConstants.usmStatsWrongDigests,
+                SnmpConstants.usmStatsUnsupportedSecLevels, SnmpConstants.usmStatsDecryptionErrors)) {
+            ResponseEvent<UdpAddress> response = report(oid);
+
+            assertThatThrownBy(() -> service.responseOf(target, response))
+                    .isInstanceOf(SnmpConfigurationException.class)
+                    .hasMessageContaining(oid.toString());
+        }
+        assertThat(forgotten).isEmpty();
+    }
+
+    @Test
+    void emptyReportIsConfigurationError() {
+        ResponseEvent<UdpAddress> response = new ResponseEvent<>(this, ADDRESS, new ScopedPDU(), reportPdu(), null);
+
+        assertThatThrownBy(() -> service.responseOf(target, response)).isInstanceOf(SnmpConfigurationException.class);
+        assertThat(forgotten).isEmpty();
+    }
+
+    @Test
+    void missingResponseIsTimeout() {
+        ResponseEvent<UdpAddress> response = new ResponseEvent<>(this, ADDRESS, new ScopedPDU(), null, null);
+
+        assertThatThrownBy(() -> service.responseOf(target, response)).isInstanceOf(SnmpTimeoutException.class);
+    }
+
+    @Test
+    void securityLevelFollowsConfiguredPassphrases() {
+        Device device = new Device();
+        device.setVersion("3");
+        device.setSecurityName("monitor");
+        assertThat(sessionManager.securityLevelOf(device)).isEqualTo(SecurityLevel.NOAUTH_NOPRIV);
+
+        device.setAuthPassphrase("authpass123");
+        assertThat(sessionManager.securityLevelOf(device)).isEqualTo(SecurityLevel.AUTH_NOPRIV);
+
+        device.setPrivPassphrase("privpass123");
+        assertThat(sessionManager.securityLevelOf(device)).isEqualTo(SecurityLevel.AUTH_PRIV);
+    }
+
+    private ResponseEvent<UdpAddress> report(OID counter) {
+        PDU pdu = reportPdu();
+        pdu.add(new VariableBinding(counter, new Counter32(1)));
+        return new ResponseEvent<>(this, ADDRESS, new ScopedPDU(), pdu, null);
+    }
+
+    private static PDU reportPdu() {
+        PDU pdu = new ScopedPDU();
+        pdu.setType(PDU.REPORT);
+        return pdu;
+    }
+}
@@ -0,0 +1,190 @@
+package com.network_monitor.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.snmp4j.CommandResponderEvent;
+import org.snmp4j.MessageDispatcherImpl;
+import org.snmp4j.PDU;
+import org.snmp4j.PDUv1;
+import org.snmp4j.mp.MPv1;
+import org.snmp4j.mp.MPv2c;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.security.SecurityLevel;
+import org.snmp4j.security.SecurityModel;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.VariableBinding;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.network_monitor.model.SnmpTrap;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SnmpTrapReceiverTest {
+
+    private static final UdpAddress PEER = new UdpAddress("10.0.0.1/162");
+    private static final OID LINK_DOWN = new OID("1.3.6.1.6.3.1.1.5.3");
+
+    private final List<SnmpTrap> enqueued = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private SnmpTrapReceiver receiver;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        SnmpTrapWriter writer = new SnmpTrapWriter() {
+            @Override
+            public void enqueue(SnmpTrap trap) {
+                enqueued.add(trap);
+            }
+        };
+        receiver = new SnmpTrapReceiver();
+        ReflectionTestUtils.setField(receiver, "enabled", false);
+        ReflectionTestUtils.setField(receiver, "community", "");
+        ReflectionTestUtils.setField(receiver, "dedupeWindowMs", 60_000L);
+        ReflectionTestUtils.setField(receiver, "dedupeMaxKeys", 1000L);
+        ReflectionTestUtils.setField(receiver, "trapWriter", writer);
+        ReflectionTestUtils.setField(receiver, "meterRegistry", meterRegistry);
+        receiver.start();
+    }
+
+    @Test
+    void duplicatesInsideWindowAreSuppressed() {
+        receiver.processPdu(v2Trap(LINK_DOWN, 1));
+        receiver.processPdu(v2Trap(LINK_DOWN, 1));
+        receiver.processPdu(v2Trap(LINK_DOWN, 1));
+
+        assertThat(enqueued).hasSize(1);
+        assertThat(enqueued.get(0).getType()).isEqualTo("trap");
+        assertThat(enqueued.get(0).getTrapOid()).isEqualTo(LINK_DOWN.toString());
+        assertThat(meterRegistry.counter("snmp.traps.suppressed").count()).isEqualTo(2);
+    }
+
+    @Test
+    void differentVarbindsOpenSeparateWindows() {
+        receiver.processPdu(v2Trap(LINK_DOWN, 1));
+        receiver.processPdu(v2Trap(LINK_DOWN, 2));
+
+        assertThat(enqueued).hasSize(2);
+        assertThat(meterRegistry.counter("snmp.traps.suppressed").count()).isZero();
+    }
+
+    @Test
+    void sweepClosesExpiredWindowWithSummary() {
+        receiver.processPdu(v2Trap(LINK_DOWN, 1));
+        receiver.processPdu(v2Trap(LINK_DOWN, 1));
+        receiver.processPdu(v2Trap(LINK_DOWN, 1));
+
+        ReflectionTestUtils.setField(receiver, "dedupeWindowMs", 0L);
+        receiver.closeExpiredWindows();
+
+        assertThat(enqueued).hasSize(2);
+        SnmpTrap summary = enqueued.get(1);
+        assertThat(summary.getType()).isEqualTo(SnmpTrap.TYPE_SUMMARY);
+        assertThat(summary.getSuppressedCount()).isEqualTo(2);
+        assertThat(summary.getTrapOid()).isEqualTo(LINK_DOWN.toString());
+        assertThat(summary.getVarbinds()).hasSize(1);
+    }
+
+    @Test
+    void sweepWithoutSuppressedTrapsEmitsNothing() {
+        receiver.processPdu(v2Trap(LINK_DOWN, 1));
+
+        ReflectionTestUtils.setField(receiver, "dedupeWindowMs", 0L);
+        receiver.closeExpiredWindows();
+
+        assertThat(enqueued).hasSize(1);
+    }
+
+    @Test
+    void trapAfterWindowClosesIsAdmittedAndSummarizesPreviousWindow() {
+        receiver.processPdu(v2Trap(LINK_DOWN, 1));
+        receiver.processPdu(v2Trap(LINK_DOWN, 1));
+
+        ReflectionTestUtils.setField(receiver, "dedupeWindowMs", 0L);
+        receiver.processPdu(v2Trap(LINK_DOWN, 1));
+
+        assertThat(enqueued).extracting(SnmpTrap::getType).containsExactly("trap", SnmpTrap.TYPE_SUMMARY, "trap");
+        assertThat(enqueued.get(1).getSuppressedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictedWindowEmitsSummary() {
+        receiver.processPdu(v2Trap(LINK_DOWN, 1));
+        receiver.processPdu(v2Trap(LINK_DOWN, 1));
+
+        Cache<String, ?> recentTraps = (Cache<String, ?>) ReflectionTestUtils.getField(receiver, "recentTraps");
+        recentTraps.policy().eviction().orElseThrow().setMaximum(0);
+
+        assertThat(enqueued).extracting(SnmpTrap::getType).containsExactly("trap", SnmpTrap.TYPE_SUMMARY);
+        assertThat(enqueued.get(1).getSuppressedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void genericV1TrapMapsToSnmpTraps() {
+        PDUv1 pdu = v1Trap(PDUv1.LINKDOWN, 0);
+
+        receiver.processPdu(event(MPv1.ID, pdu));
+
+        SnmpTrap trap = enqueued.get(0);
+        assertThat(trap.getTrapOid()).isEqualTo(LINK_DOWN.toString());
+        assertThat(trap.getType()).isEqualTo("v1-trap");
+        assertThat(trap.getVersion()).isEqualTo("1");
+        assertThat(trap.getUptime()).isEqualTo(4200L);
+    }
+
+    @Test
+    void enterpriseSpecificV1TrapMapsToEnterpriseZeroSpecific() {
+        PDUv1 pdu = v1Trap(PDUv1.ENTERPRISE_SPECIFIC, 17);
+
+        receiver.processPdu(event(MPv1.ID, pdu));
+
+        assertThat(enqueued.get(0).getTrapOid()).isEqualTo("1.3.6.1.4.1.9.0.17");
+    }
+
+    @Test
+    void unexpectedCommunityIsRejected() {
+        ReflectionTestUtils.setField(receiver, "community", "secret");
+
+        receiver.processPdu(v2Trap(LINK_DOWN, 1));
+
+        assertThat(enqueued).isEmpty();
+        assertThat(meterRegistry.counter("snmp.traps.rejected").count()).isEqualTo(1);
+    }
+
+    private static CommandResponderEvent<UdpAddress> v2Trap(OID trapOid, int ifIndex) {
+        PDU pdu = new PDU();
+        pdu.setType(PDU.TRAP);
+        pdu.add(new VariableBinding(SnmpConstants.sysUpTime, new TimeTicks(System.nanoTime() / 10_000_000)));
+        pdu.add(new VariableBinding(SnmpConstants.snmpTrapOID, trapOid));
+        pdu.add(new VariableBinding(new OID("1.3.6.1.2.1.2.2.1.1." + ifIndex), new Integer32(ifIndex)));
+        return event(MPv2c.ID, pdu);
+    }
+
+    private static PDUv1 v1Trap(int genericTrap, int specificTrap) {
+        PDUv1 pdu = new PDUv1();
+        pdu.setType(PDU.V1TRAP);
+        pdu.setEnterprise(new OID("1.3.6.1.4.1.9"));
+        pdu.setGenericTrap(genericTrap);
+        pdu.setSpecificTrap(specificTrap);
+        pdu.setTimestamp(4200);
+        return pdu;
+    }
+
+    private static CommandResponderEvent<UdpAddress> event(int messageProcessingModel, PDU pdu) {
+        return new CommandResponderEvent<>(new MessageDispatcherImpl(), null, PEER, messageProcessingModel,
+                messageProcessingModel == MPv1.ID ? SecurityModel.SECURITY_MODEL_SNMPv1
+                        : SecurityModel.SECURITY_MODEL_SNMPv2c,
+                new OctetString("public").getValue(), SecurityLevel.NOAUTH_NOPRIV, null, pdu, 65535, null);
+    }
+}
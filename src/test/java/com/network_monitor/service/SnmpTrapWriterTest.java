@@ -0,0 +1,74 @@
+package com.network_monitor.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.network_monitor.event.SnmpTrapsReceivedEvent;
+import com.network_monitor.model.SnmpTrap;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SnmpTrapWriterTest {
+
+    private final BlockingQueue<List<SnmpTrap>> batches = new LinkedBlockingQueue<>();
+    private SnmpTrapWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new SnmpTrapWriter();
+        ApplicationEventPublisher publisher = event -> batches.add(((SnmpTrapsReceivedEvent) event).getTraps());
+        ReflectionTestUtils.setField(writer, "persistenceEnabled", false);
+        ReflectionTestUtils.setField(writer, "queueCapacity", 10);
+        ReflectionTestUtils.setField(writer, "batchSize", 3);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 200L);
+        ReflectionTestUtils.setField(writer, "maxPendingBatches", 4);
+        ReflectionTestUtils.setField(writer, "eventPublisher", publisher);
+        ReflectionTestUtils.setField(writer, "meterRegistry", new SimpleMeterRegistry());
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.stop();
+    }
+
+    @Test
+    void fullBatchesAreFlushedInOrder() throws InterruptedException {
+        for (int i = 0; i < 7; i++) {
+            writer.enqueue(trap(i));
+        }
+        writer.stop();
+
+        assertThat(batches).extracting(List::size).containsExactly(3, 3, 1);
+        assertThat(batches).flatExtracting(batch -> batch).extracting(SnmpTrap::getSourceIp)
+                .containsExactly("10.0.0.0", "10.0.0.1", "10.0.0.2", "10.0.0.3", "10.0.0.4", "10.0.0.5",
+                        "10.0.0.6");
+    }
+
+    @Test
+    void partialBatchIsFlushedAfterInterval() throws InterruptedException {
+        writer.enqueue(trap(0));
+        writer.enqueue(trap(1));
+
+        List<SnmpTrap> batch = batches.poll(5, TimeUnit.SECONDS);
+
+        assertThat(batch).extracting(SnmpTrap::getSourceIp).containsExactly("10.0.0.0", "10.0.0.1");
+    }
+
+    private static SnmpTrap trap(int i) {
+        SnmpTrap trap = new SnmpTrap();
+        trap.setSourceIp("10.0.0." + i);
+        trap.setType("trap");
+        return trap;
+    }
+}